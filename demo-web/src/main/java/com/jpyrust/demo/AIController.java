@@ -1,6 +1,5 @@
 package com.jpyrust.demo;
 
-import com.jpyrust.JPyRustBridge;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -10,7 +9,7 @@ import java.util.Map;
 @RequestMapping("/api/ai")
 public class AIController {
 
-    private final JPyRustBridge bridge = new JPyRustBridge();
+    private final DemoBridge bridge = new DemoBridge();
 
     @GetMapping("/chat")
     public Map<String, Object> chat(@RequestParam String message, @RequestParam int id) {
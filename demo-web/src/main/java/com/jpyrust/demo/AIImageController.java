@@ -1,8 +1,9 @@
 package com.jpyrust.demo;
 
-import com.jpyrust.JPyRustBridge;
+import com.jpyrust.PayloadTooLargeException;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +12,7 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
 import java.io.File;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.UUID;
@@ -31,6 +33,12 @@ public class AIImageController {
     @Value("${app.ai.confidence:0.5}")
     private float confidence;
 
+    @Value("${app.ai.image-passthrough:true}")
+    private boolean imagePassthrough;
+
+    @Value("${app.ai.max-image-bytes:20971520}")
+    private long maxImageBytes;
+
     @PostConstruct
     public void init() {
         System.out.println("[AIImageController] Work Directory: " + workDir);
@@ -42,7 +50,7 @@ public class AIImageController {
             System.out.println("[AIImageController] Created work directory: " + workDir);
         }
 
-        JPyRustBridge.initialize(workDir, sourceScriptDir, modelPath, confidence);
+        DemoBridge.initialize(workDir, sourceScriptDir, modelPath, confidence);
     }
 
     @PostMapping(value = "/process-image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.IMAGE_JPEG_VALUE)
@@ -56,6 +64,9 @@ public class AIImageController {
     }
 
     private ResponseEntity<byte[]> processImageInternal(MultipartFile file, String mode) {
+        if (imagePassthrough) {
+            return processEncodedImage(file, mode);
+        }
         String requestId = UUID.randomUUID().toString();
         try {
             BufferedImage inputImage = ImageIO.read(file.getInputStream());
@@ -72,7 +83,7 @@ public class AIImageController {
             directBuffer.put(pixelData);
             directBuffer.flip();
 
-            JPyRustBridge bridge = new JPyRustBridge();
+            DemoBridge bridge = new DemoBridge();
             byte[] resultData;
 
             if ("EDGE".equals(mode)) {
@@ -91,4 +102,23 @@ public class AIImageController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    private ResponseEntity<byte[]> processEncodedImage(MultipartFile file, String mode) {
+        DemoBridge bridge = new DemoBridge();
+        try (InputStream in = file.getInputStream()) {
+            byte[] resultData = "EDGE".equals(mode)
+                    ? bridge.processEncodedEdgeDetection(in, file.getSize(), maxImageBytes)
+                    : bridge.processEncodedImage(in, file.getSize(), maxImageBytes);
+
+            if (resultData == null)
+                return ResponseEntity.internalServerError().build();
+            return ResponseEntity.ok(resultData);
+
+        } catch (PayloadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
 }
@@ -1,6 +1,5 @@
 package com.jpyrust.demo;
 
-import com.jpyrust.JPyRustBridge;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -25,7 +24,7 @@ public class AITextController {
         long startTime = System.nanoTime();
 
         try {
-            JPyRustBridge bridge = new JPyRustBridge();
+            DemoBridge bridge = new DemoBridge();
             String result = bridge.processText(text);
 
             long elapsed = (System.nanoTime() - startTime) / 1_000_000;
@@ -1,6 +1,5 @@
 package com.jpyrust.demo;
 
-import com.jpyrust.JPyRustBridge;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import jakarta.annotation.PostConstruct;
@@ -19,7 +18,7 @@ public class DemoApplication {
         CompletableFuture.runAsync(() -> {
             try {
                 System.out.println("[Async] Starting JPyRust initialization...");
-                JPyRustBridge.initialize();
+                DemoBridge.initialize();
                 System.out.println("[Async] JPyRust initialization complete!");
             } catch (Exception e) {
                 System.err.println("[Async] JPyRust initialization failed: " + e.getMessage());
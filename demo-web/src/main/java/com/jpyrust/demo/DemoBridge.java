@@ -0,0 +1,125 @@
+package com.jpyrust.demo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jpyrust.JPyRustBridge;
+import com.jpyrust.Readiness;
+
+// The controllers' view of the library: one JPyRustBridge from java-api shared by the whole
+// app, plus the dev-mode copy of python-core into the work directory.
+public class DemoBridge {
+
+    private static final Logger logger = LoggerFactory.getLogger(DemoBridge.class);
+
+    private static final JPyRustBridge SHARED = new JPyRustBridge("demo-web");
+
+    private static String workDir = "C:/jpyrust_temp";
+    private static String sourceScriptDir = "d:/JPyRust/python-core";
+
+    public synchronized static void initialize(String workDirectory, String sourceScript, String modelPath,
+            float confidence) {
+        if (SHARED.isReady()) {
+            return;
+        }
+        workDir = workDirectory;
+        sourceScriptDir = sourceScript;
+
+        logger.info("Initializing JPyRust: workDir={}, model={}, confidence={}", workDir, modelPath, confidence);
+        try {
+            copyPythonSources();
+        } catch (IOException e) {
+            logger.warn("Could not copy python-core from {}: {}", sourceScriptDir, e.getMessage());
+        }
+        SHARED.initialize(workDir, modelPath, confidence);
+        logger.info("JPyRust initialization complete");
+    }
+
+    public synchronized static void initialize() {
+        initialize(workDir, sourceScriptDir, "yolov8n.pt", 0.5f);
+    }
+
+    public static Readiness getReadiness() {
+        return SHARED.getReadiness();
+    }
+
+    private static void copyPythonSources() throws IOException {
+        Path target = Paths.get(workDir);
+        Files.createDirectories(target);
+        Path script = Paths.get(sourceScriptDir, "ai_worker.py");
+        if (Files.exists(script)) {
+            Files.copy(script, target.resolve("ai_worker.py"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Path pluginsSrc = Paths.get(sourceScriptDir, "plugins");
+        if (!Files.isDirectory(pluginsSrc)) {
+            return;
+        }
+        Path pluginsDst = target.resolve("plugins");
+        try (Stream<Path> files = Files.walk(pluginsSrc)) {
+            for (Path source : (Iterable<Path>) files::iterator) {
+                Path destination = pluginsDst.resolve(pluginsSrc.relativize(source).toString());
+                if (Files.isDirectory(source)) {
+                    Files.createDirectories(destination);
+                } else {
+                    Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    public byte[] execute(String taskType, String metadata, byte[] inputData) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(1, inputData.length)).put(inputData).flip();
+        return SHARED.sendTask(taskType, metadata, buffer, inputData.length);
+    }
+
+    public String sendTask(String taskType, String metadata) {
+        byte[] result = execute(taskType, metadata, "{}".getBytes(StandardCharsets.UTF_8));
+        if (result == null)
+            return "ERROR: Bridge returned null";
+        return new String(result, StandardCharsets.UTF_8);
+    }
+
+    public byte[] processImage(String workDirectory, ByteBuffer data, int length, int width, int height,
+            int channels, String requestId) {
+        data.position(0);
+        return SHARED.processImage(data, length, width, height, channels, requestId);
+    }
+
+    public byte[] processEncodedImage(InputStream in, long sizeHint, long maxBytes) throws IOException {
+        return SHARED.processEncodedImage(in, sizeHint, maxBytes);
+    }
+
+    public byte[] processEncodedEdgeDetection(InputStream in, long sizeHint, long maxBytes) throws IOException {
+        return SHARED.processEncodedEdgeDetection(in, sizeHint, maxBytes);
+    }
+
+    public byte[] processEdgeDetection(byte[] imageData, int width, int height, int channels) {
+        return SHARED.processEdgeDetection(imageData, width, height, channels);
+    }
+
+    public String processText(String text) {
+        byte[] result = execute("SENTIMENT", "NONE", text.getBytes(StandardCharsets.UTF_8));
+        if (result == null) {
+            return "ERROR: Processing failed";
+        }
+        return new String(result, StandardCharsets.UTF_8);
+    }
+
+    public String processNlp(String text) {
+        return SHARED.processNlp(text);
+    }
+
+    public String processRegression(String jsonPoints) {
+        return SHARED.processRegression(jsonPoints);
+    }
+}
@@ -1,6 +1,5 @@
 package com.jpyrust.demo;
 
-import com.jpyrust.JPyRustBridge;
 import org.springframework.web.bind.annotation.*;
 import java.util.Map;
 
@@ -8,7 +7,7 @@ import java.util.Map;
 @RequestMapping("/api/plugin")
 public class PluginController {
 
-    private final JPyRustBridge bridge = new JPyRustBridge();
+    private final DemoBridge bridge = new DemoBridge();
 
     @PostMapping("/{taskType}")
     public Map<String, Object> executePlugin(@PathVariable String taskType, @RequestBody Map<String, Object> payload) {
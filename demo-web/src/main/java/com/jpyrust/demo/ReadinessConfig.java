@@ -0,0 +1,33 @@
+package com.jpyrust.demo;
+
+import com.jpyrust.Readiness;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ReadinessConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                    throws Exception {
+                Readiness readiness = DemoBridge.getReadiness();
+                if (readiness == Readiness.READY) {
+                    return true;
+                }
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader("Retry-After", "5");
+                response.setContentType("application/json");
+                response.getWriter().write("{\"status\":\"" + readiness.name() + "\"}");
+                return false;
+            }
+        }).addPathPatterns("/api/**").excludePathPatterns("/api/ready", "/api/status");
+    }
+}
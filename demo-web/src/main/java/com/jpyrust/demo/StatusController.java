@@ -1,6 +1,8 @@
 package com.jpyrust.demo;
 
-import com.jpyrust.JPyRustBridge;
+import com.jpyrust.Readiness;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -11,7 +13,7 @@ import java.util.Map;
 @RequestMapping("/api")
 public class StatusController {
 
-    private final JPyRustBridge bridge = new JPyRustBridge();
+    private final DemoBridge bridge = new DemoBridge();
     private final ObjectMapper mapper = new ObjectMapper();
 
     @GetMapping("/status")
@@ -33,4 +35,11 @@ public class StatusController {
             return Map.of("status", "DOWN", "error", e.getMessage());
         }
     }
+
+    @GetMapping("/ready")
+    public ResponseEntity<Map<String, Object>> getReadiness() {
+        Readiness readiness = DemoBridge.getReadiness();
+        HttpStatus status = readiness == Readiness.READY ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(Map.of("status", readiness.name()));
+    }
 }
@@ -0,0 +1,127 @@
+package com.jpyrust.demo;
+
+import com.jpyrust.Readiness;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Each connection has at most one frame in flight plus one waiting. A frame that arrives
+// while another is waiting replaces it, so a slow bridge shows the newest picture late
+// instead of an ever-growing backlog of old ones.
+@Component
+public class VideoStreamHandler extends BinaryWebSocketHandler {
+
+    private final DemoBridge bridge = new DemoBridge();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+
+    @Value("${app.ai.max-frame-bytes:4194304}")
+    private int maxFrameBytes;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        if (DemoBridge.getReadiness() != Readiness.READY) {
+            session.close(CloseStatus.SERVICE_RESTARTED.withReason(DemoBridge.getReadiness().name()));
+            return;
+        }
+        session.setBinaryMessageSizeLimit(maxFrameBytes);
+        String query = session.getUri() != null ? session.getUri().getQuery() : null;
+        boolean edge = query != null && query.contains("mode=edge");
+        streams.put(session.getId(), new Stream(session, edge));
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        Stream stream = streams.get(session.getId());
+        if (stream == null) {
+            return;
+        }
+        ByteBuffer payload = message.getPayload();
+        byte[] frame = new byte[payload.remaining()];
+        payload.get(frame);
+        if (stream.pending.getAndSet(frame) != null) {
+            stream.dropped.incrementAndGet();
+        }
+        if (stream.busy.compareAndSet(false, true)) {
+            executor.execute(() -> drain(stream));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        streams.remove(session.getId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void drain(Stream stream) {
+        while (true) {
+            byte[] frame = stream.pending.getAndSet(null);
+            if (frame == null) {
+                stream.busy.set(false);
+                if (stream.pending.get() == null || !stream.busy.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            if (!stream.session.isOpen()) {
+                stream.busy.set(false);
+                return;
+            }
+            try {
+                process(stream, frame);
+            } catch (Exception e) {
+                System.err.println("[VideoStreamHandler] Frame failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Edge frames come back as JPEG bytes, detections as a small JSON text message that
+    // carries the drop counter, so the page can draw boxes over its own live video.
+    private void process(Stream stream, byte[] frame) throws IOException {
+        byte[] result = stream.edge
+                ? bridge.execute("EDGE_DETECT", "0 0 0 ENCODED", frame)
+                : bridge.execute("YOLO", "0 0 0", frame);
+        synchronized (stream.session) {
+            if (result == null) {
+                stream.session.sendMessage(new TextMessage("{\"error\":\"Native execution failed\"}"));
+            } else if (stream.edge) {
+                stream.session.sendMessage(new BinaryMessage(result));
+            } else {
+                stream.session.sendMessage(new TextMessage("{\"dropped\":" + stream.dropped.get()
+                        + ",\"result\":" + new String(result, StandardCharsets.UTF_8) + "}"));
+            }
+        }
+    }
+
+    private static final class Stream {
+        private final WebSocketSession session;
+        private final boolean edge;
+        private final AtomicReference<byte[]> pending = new AtomicReference<>();
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private Stream(WebSocketSession session, boolean edge) {
+            this.session = session;
+            this.edge = edge;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.jpyrust.demo;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final VideoStreamHandler videoStreamHandler;
+
+    public WebSocketConfig(VideoStreamHandler videoStreamHandler) {
+        this.videoStreamHandler = videoStreamHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(videoStreamHandler, "/ws/video");
+    }
+}
@@ -0,0 +1,41 @@
+package com.jpyrust;
+
+import java.util.Arrays;
+
+// Steps the YOLO input size down while the p95 of recent end-to-end latencies (queueing
+// included) is over target, and back up once it has fallen well below. Stepping up only
+// under half the target keeps one size step (~1.5x the pixels) from overshooting again.
+final class AdaptiveResolution {
+
+    static final int[] SIZES = { 640, 512, 416, 320 };
+    static final int WINDOW = 32;
+
+    private final long targetNanos;
+    private final long[] samples = new long[WINDOW];
+    private int count;
+    private volatile int level;
+
+    AdaptiveResolution(long targetMillis) {
+        this.targetNanos = targetMillis * 1_000_000L;
+    }
+
+    int current() {
+        return SIZES[level];
+    }
+
+    synchronized void record(long nanos) {
+        samples[count++] = nanos;
+        if (count < WINDOW) {
+            return;
+        }
+        count = 0;
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        long p95 = sorted[(WINDOW * 95 + 99) / 100 - 1];
+        if (p95 > targetNanos && level < SIZES.length - 1) {
+            level++;
+        } else if (p95 < targetNanos / 2 && level > 0) {
+            level--;
+        }
+    }
+}
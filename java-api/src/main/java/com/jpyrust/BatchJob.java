@@ -0,0 +1,419 @@
+package com.jpyrust;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Offline detection over a directory tree or a manifest of image files. Reader threads load
+// upcoming batches straight into direct buffers while earlier ones are being detected; each
+// worker call carries a whole batch, which the worker decodes in parallel and runs through
+// the model at once. Results are appended in input order as JSON lines, and after every batch
+// a checkpoint records how many inputs and output bytes are final, so a rerun truncates any
+// partial tail and continues from there. Read-ahead is bounded by maxBufferedBytes, so
+// direct memory stays flat no matter how large batches or images get.
+public final class BatchJob {
+
+    public static final class Progress {
+        private final int completed;
+        private final int total;
+        private final int failed;
+        private final long elapsedNanos;
+
+        Progress(int completed, int total, int failed, long elapsedNanos) {
+            this.completed = completed;
+            this.total = total;
+            this.failed = failed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getCompleted() {
+            return completed;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d/%d done, %d failed, %.1f s", completed, total, failed,
+                    elapsedNanos / 1e9);
+        }
+    }
+
+    private static final String CHECKPOINT_MAGIC = "JPYRBATCH1";
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "bmp", "webp", "tif", "tiff");
+
+    private final Function<ByteBuffer, byte[]> detector;
+    private final IntSupplier parallelism;
+    private Path inputDirectory;
+    private Path manifest;
+    private Path output;
+    private Path checkpoint;
+    private int batchSize = 16;
+    private int readThreads = 4;
+    private long maxImageBytes = 64L * 1024 * 1024;
+    private long maxBufferedBytes = 256L * 1024 * 1024;
+    private Consumer<Progress> progressListener;
+
+    BatchJob(Function<ByteBuffer, byte[]> detector, IntSupplier parallelism) {
+        this.detector = detector;
+        this.parallelism = parallelism;
+    }
+
+    public BatchJob inputDirectory(Path directory) {
+        this.inputDirectory = directory;
+        this.manifest = null;
+        return this;
+    }
+
+    // One image path per line; relative paths resolve against the manifest's directory.
+    public BatchJob manifest(Path file) {
+        this.manifest = file;
+        this.inputDirectory = null;
+        return this;
+    }
+
+    public BatchJob output(Path file) {
+        this.output = file;
+        return this;
+    }
+
+    public BatchJob checkpoint(Path file) {
+        this.checkpoint = file;
+        return this;
+    }
+
+    public BatchJob batchSize(int images) {
+        if (images < 1) {
+            throw new IllegalArgumentException("batchSize must be >= 1: " + images);
+        }
+        this.batchSize = images;
+        return this;
+    }
+
+    public BatchJob readThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("readThreads must be >= 1: " + threads);
+        }
+        this.readThreads = threads;
+        return this;
+    }
+
+    public BatchJob maxImageBytes(long bytes) {
+        if (bytes < 1) {
+            throw new IllegalArgumentException("maxImageBytes must be >= 1: " + bytes);
+        }
+        this.maxImageBytes = bytes;
+        return this;
+    }
+
+    // Total size of batches that are read but not yet detected. A single batch larger than this
+    // still runs, but only once nothing else is buffered.
+    public BatchJob maxBufferedBytes(long bytes) {
+        if (bytes < 1) {
+            throw new IllegalArgumentException("maxBufferedBytes must be >= 1: " + bytes);
+        }
+        this.maxBufferedBytes = bytes;
+        return this;
+    }
+
+    public BatchJob onProgress(Consumer<Progress> listener) {
+        this.progressListener = listener;
+        return this;
+    }
+
+    public Progress run() throws IOException {
+        if (output == null || (inputDirectory == null && manifest == null)) {
+            throw new IllegalStateException("BatchJob needs an input directory or manifest and an output file");
+        }
+        List<Path> inputs = listInputs();
+        Path checkpointFile = checkpoint != null ? checkpoint
+                : output.resolveSibling(output.getFileName() + ".checkpoint");
+        long fingerprint = fingerprint(inputs);
+        long[] resume = readCheckpoint(checkpointFile, inputs.size(), fingerprint);
+        int done = (int) resume[0];
+        long committedBytes = resume[1];
+        int failed = (int) resume[2];
+
+        long start = System.nanoTime();
+        int parallelism = this.parallelism.getAsInt();
+        Semaphore buffered = new Semaphore(kibibytes(maxBufferedBytes));
+        ExecutorService readers = Executors.newFixedThreadPool(readThreads);
+        ExecutorService senders = Executors.newFixedThreadPool(parallelism);
+        ArrayDeque<CompletableFuture<Batch>> pending = new ArrayDeque<>();
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (out.size() < committedBytes) {
+                throw new IllegalStateException("Output " + output + " is shorter than its checkpoint says");
+            }
+            out.truncate(committedBytes);
+            out.position(committedBytes);
+            int next = done;
+            int window = 2 * parallelism + readThreads;
+            while (next < inputs.size() || !pending.isEmpty()) {
+                while (next < inputs.size() && pending.size() < window) {
+                    int from = next;
+                    int to = Math.min(inputs.size(), from + batchSize);
+                    pending.add(CompletableFuture.supplyAsync(() -> read(inputs, from, to, buffered), readers)
+                            .thenApplyAsync(batch -> detect(batch, buffered), senders));
+                    next = to;
+                }
+                Batch batch = await(pending.poll(), done);
+                ByteBuffer lines = ByteBuffer.wrap(batch.lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (lines.hasRemaining()) {
+                    out.write(lines);
+                }
+                out.force(false);
+                done += batch.size;
+                failed += batch.failed;
+                committedBytes = out.position();
+                writeCheckpoint(checkpointFile, inputs.size(), fingerprint, done, committedBytes, failed);
+                if (progressListener != null) {
+                    progressListener.accept(new Progress(done, inputs.size(), failed, System.nanoTime() - start));
+                }
+            }
+        } finally {
+            pending.forEach(f -> f.cancel(true));
+            readers.shutdownNow();
+            senders.shutdownNow();
+        }
+        return new Progress(done, inputs.size(), failed, System.nanoTime() - start);
+    }
+
+    private static Batch await(CompletableFuture<Batch> future, int firstInput) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Batch starting at input " + firstInput + " failed; rerun to resume from the "
+                    + "checkpoint", cause);
+        }
+    }
+
+    private List<Path> listInputs() throws IOException {
+        if (manifest != null) {
+            Path base = manifest.toAbsolutePath().getParent();
+            try (Stream<String> lines = Files.lines(manifest)) {
+                return lines.map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .map(base::resolve)
+                        .collect(Collectors.toList());
+            }
+        }
+        try (Stream<Path> files = Files.walk(inputDirectory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(BatchJob::isImage)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isImage(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && IMAGE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    static long fingerprint(List<Path> inputs) {
+        long hash = 0xcbf29ce484222325L;
+        for (Path input : inputs) {
+            for (byte b : input.toString().getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            }
+            hash = (hash ^ '\n') * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // "JPYRBATCH1 <inputs> <fingerprint> <done> <output bytes> <failed>"; a checkpoint for a
+    // different input list is refused rather than silently skipping the wrong files.
+    static long[] readCheckpoint(Path file, int inputs, long fingerprint) throws IOException {
+        if (!Files.exists(file)) {
+            return new long[3];
+        }
+        String[] fields = Files.readString(file, StandardCharsets.US_ASCII).trim().split("\\s+");
+        if (fields.length != 6 || !CHECKPOINT_MAGIC.equals(fields[0])) {
+            throw new IllegalStateException("Not a batch checkpoint: " + file);
+        }
+        if (Integer.parseInt(fields[1]) != inputs || Long.parseLong(fields[2]) != fingerprint) {
+            throw new IllegalStateException("Checkpoint " + file + " was written for a different input list");
+        }
+        return new long[] {Long.parseLong(fields[3]), Long.parseLong(fields[4]), Long.parseLong(fields[5])};
+    }
+
+    static void writeCheckpoint(Path file, int inputs, long fingerprint, int done, long bytes, int failed)
+            throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, CHECKPOINT_MAGIC + " " + inputs + " " + fingerprint + " " + done + " " + bytes + " "
+                + failed + "\n", StandardCharsets.US_ASCII);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int kibibytes(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE, (bytes + 1023) / 1024);
+    }
+
+    private static final class Batch {
+        private final List<Path> inputs;
+        private final String[] errors;
+        private final ByteBuffer packed;
+        private final int permits;
+        private final StringBuilder lines = new StringBuilder();
+        private final int size;
+        private int failed;
+
+        private Batch(List<Path> inputs, String[] errors, ByteBuffer packed, int permits) {
+            this.inputs = inputs;
+            this.errors = errors;
+            this.packed = packed;
+            this.permits = permits;
+            this.size = inputs.size();
+        }
+    }
+
+    // Packs the batch as u32 count, then u32 length + file bytes per image, read straight from
+    // the file channel into one direct buffer. Unreadable files go out as empty items. The
+    // buffer's size is taken from the budget first and given back once the batch is detected.
+    private Batch read(List<Path> all, int from, int to, Semaphore buffered) {
+        List<Path> inputs = all.subList(from, to);
+        String[] errors = new String[inputs.size()];
+        long[] sizes = new long[inputs.size()];
+        long total = 4;
+        for (int i = 0; i < sizes.length; i++) {
+            try {
+                sizes[i] = Files.size(inputs.get(i));
+                if (sizes[i] > maxImageBytes) {
+                    errors[i] = "larger than " + maxImageBytes + " bytes";
+                    sizes[i] = 0;
+                }
+            } catch (IOException e) {
+                errors[i] = "unreadable: " + e.getMessage();
+            }
+            total += 4 + sizes[i];
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Batch at input " + from + " exceeds 2 GB; lower batchSize");
+        }
+        int permits = Math.min(kibibytes(total), kibibytes(maxBufferedBytes));
+        try {
+            buffered.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to buffer batch at input " + from, e);
+        }
+        ByteBuffer packed = ByteBuffer.allocateDirect((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        packed.putInt(inputs.size());
+        for (int i = 0; i < sizes.length; i++) {
+            int lengthAt = packed.position();
+            packed.putInt(0);
+            if (errors[i] != null) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(inputs.get(i), StandardOpenOption.READ)) {
+                ByteBuffer slot = packed.slice(packed.position(), (int) sizes[i]);
+                while (slot.hasRemaining()) {
+                    if (channel.read(slot) < 0) {
+                        break;
+                    }
+                }
+                packed.putInt(lengthAt, slot.position());
+                packed.position(packed.position() + slot.position());
+            } catch (IOException e) {
+                errors[i] = "unreadable: " + e.getMessage();
+            }
+        }
+        packed.flip();
+        return new Batch(inputs, errors, packed, permits);
+    }
+
+    private Batch detect(Batch batch, Semaphore buffered) {
+        byte[] result;
+        try {
+            result = detector.apply(batch.packed);
+        } finally {
+            buffered.release(batch.permits);
+        }
+        if (result == null) {
+            throw new RuntimeException("YOLO batch failed: native execution returned no result");
+        }
+        ByteBuffer items = ByteBuffer.wrap(result).order(ByteOrder.LITTLE_ENDIAN);
+        if (items.remaining() < 4 || items.getInt() != batch.size) {
+            throw new IllegalStateException("YOLO batch returned a different number of results");
+        }
+        DetectionResult detections = new DetectionResult();
+        for (int i = 0; i < batch.size; i++) {
+            int length = items.getInt();
+            detections.reset(items.slice(items.position(), length));
+            items.position(items.position() + length);
+            String error = batch.errors[i] != null ? batch.errors[i]
+                    : detections.inputSize() < 0 ? "could not be decoded" : null;
+            appendLine(batch.lines, batch.inputs.get(i), error, detections);
+            if (error != null) {
+                batch.failed++;
+            }
+        }
+        return batch;
+    }
+
+    private static void appendLine(StringBuilder sb, Path input, String error, DetectionResult result) {
+        sb.append("{\"input\":");
+        quote(sb, input.toString());
+        if (error != null) {
+            sb.append(",\"error\":");
+            quote(sb, error);
+            sb.append("}\n");
+            return;
+        }
+        sb.append(",\"imgsz\":").append(result.inputSize()).append(",\"detections\":[");
+        for (int i = 0; i < result.count(); i++) {
+            sb.append(i == 0 ? "{\"label\":" : ",{\"label\":");
+            quote(sb, result.label(i));
+            sb.append(String.format(Locale.ROOT, ",\"score\":%.4f,\"bbox\":[%.1f,%.1f,%.1f,%.1f]}", result.score(i),
+                    result.x(i), result.y(i), result.width(i), result.height(i)));
+        }
+        sb.append("]}\n");
+    }
+
+    private static void quote(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
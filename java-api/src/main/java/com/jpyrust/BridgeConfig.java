@@ -0,0 +1,212 @@
+package com.jpyrust;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public final class BridgeConfig {
+
+    private Integer workers;
+    private String endpoints;
+    private String cpuSet;
+    private int threadsPerWorker;
+    private boolean numaAware;
+    private long maxWorkerMemoryMb;
+    private long maxRequestsPerWorker;
+    private Integer warmupRuns;
+    private int concurrencyPerWorker = 1;
+    private Integer inlineThresholdBytes;
+    private long detectionLatencyTargetMs;
+    private boolean zygote;
+    private String sharedPool;
+    private Path trafficCapture;
+    private double trafficSampleRate;
+
+    public BridgeConfig workers(int workers) {
+        if (workers < 0) {
+            throw new IllegalArgumentException("workers must be >= 0: " + workers);
+        }
+        this.workers = workers;
+        return this;
+    }
+
+    public BridgeConfig remoteWorkers(String... endpoints) {
+        for (String endpoint : endpoints) {
+            if (!endpoint.startsWith("tcp://") && !endpoint.startsWith("unix:")) {
+                throw new IllegalArgumentException("Unsupported worker endpoint: " + endpoint);
+            }
+        }
+        this.endpoints = endpoints.length == 0 ? null : String.join(",", endpoints);
+        return this;
+    }
+
+    public BridgeConfig cpuSet(String cpuList) {
+        this.cpuSet = cpuList;
+        return this;
+    }
+
+    public BridgeConfig threadsPerWorker(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("threadsPerWorker must be >= 0: " + threads);
+        }
+        this.threadsPerWorker = threads;
+        return this;
+    }
+
+    public BridgeConfig numaAware(boolean numaAware) {
+        this.numaAware = numaAware;
+        return this;
+    }
+
+    public BridgeConfig zygote(boolean zygote) {
+        this.zygote = zygote;
+        return this;
+    }
+
+    public BridgeConfig sharedPool(String name) {
+        if (name != null && (name.isEmpty()
+                || name.chars().anyMatch(c -> !Character.isLetterOrDigit(c) && c != '-' && c != '_'))) {
+            throw new IllegalArgumentException("sharedPool name must be letters, digits, '-' or '_': " + name);
+        }
+        this.sharedPool = name;
+        return this;
+    }
+
+    public BridgeConfig recordTraffic(Path capture, double sampleRate) {
+        if (!(sampleRate > 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("sampleRate must be in (0, 1]: " + sampleRate);
+        }
+        this.trafficCapture = capture;
+        this.trafficSampleRate = sampleRate;
+        return this;
+    }
+
+    public BridgeConfig maxWorkerMemoryMb(long megabytes) {
+        if (megabytes < 0) {
+            throw new IllegalArgumentException("maxWorkerMemoryMb must be >= 0: " + megabytes);
+        }
+        this.maxWorkerMemoryMb = megabytes;
+        return this;
+    }
+
+    public BridgeConfig maxRequestsPerWorker(long requests) {
+        if (requests < 0) {
+            throw new IllegalArgumentException("maxRequestsPerWorker must be >= 0: " + requests);
+        }
+        this.maxRequestsPerWorker = requests;
+        return this;
+    }
+
+    public BridgeConfig concurrencyPerWorker(int requests) {
+        if (requests < 1) {
+            throw new IllegalArgumentException("concurrencyPerWorker must be >= 1: " + requests);
+        }
+        this.concurrencyPerWorker = requests;
+        return this;
+    }
+
+    public BridgeConfig inlineThreshold(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("inlineThreshold must be >= 0: " + bytes);
+        }
+        this.inlineThresholdBytes = bytes;
+        return this;
+    }
+
+    public BridgeConfig detectionLatencyTargetMs(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("detectionLatencyTargetMs must be >= 0: " + millis);
+        }
+        this.detectionLatencyTargetMs = millis;
+        return this;
+    }
+
+    public BridgeConfig warmupRuns(int runs) {
+        if (runs < 0) {
+            throw new IllegalArgumentException("warmupRuns must be >= 0: " + runs);
+        }
+        this.warmupRuns = runs;
+        return this;
+    }
+
+    public int getWorkers() {
+        if (workers != null) {
+            return workers;
+        }
+        return endpoints != null ? 0 : 1;
+    }
+
+    String sharedPool() {
+        return sharedPool;
+    }
+
+    Path trafficCapture() {
+        return trafficCapture;
+    }
+
+    double trafficSampleRate() {
+        return trafficSampleRate;
+    }
+
+    long detectionLatencyTargetMs() {
+        return detectionLatencyTargetMs;
+    }
+
+    int parallelism() {
+        int slots = getWorkers() * concurrencyPerWorker;
+        if (endpoints != null) {
+            for (String endpoint : endpoints.split(",")) {
+                int star = endpoint.lastIndexOf('*');
+                try {
+                    slots += star < 0 ? 1 : Integer.parseInt(endpoint.substring(star + 1).trim());
+                } catch (NumberFormatException e) {
+                    slots += 1;
+                }
+            }
+        }
+        return Math.max(1, slots);
+    }
+
+    String toNativeOptions() {
+        int workers = getWorkers();
+        StringBuilder sb = new StringBuilder();
+        append(sb, "workers", workers);
+
+        List<int[]> placement = WorkerPlacement.plan(workers, cpuSet, numaAware);
+        for (int i = 0; i < workers; i++) {
+            int[] cpus = placement.isEmpty() ? null : placement.get(i);
+            if (cpus != null) {
+                append(sb, "worker." + i + ".cpus", WorkerPlacement.format(cpus));
+            }
+            int threads = threadsPerWorker > 0 ? threadsPerWorker : (cpus != null ? cpus.length : 0);
+            if (threads > 0) {
+                append(sb, "worker." + i + ".threads", threads);
+            }
+        }
+        if (endpoints != null) {
+            append(sb, "endpoints", endpoints);
+        }
+        if (zygote) {
+            append(sb, "zygote", true);
+        }
+        if (concurrencyPerWorker > 1) {
+            append(sb, "worker.concurrency", concurrencyPerWorker);
+        }
+        if (warmupRuns != null) {
+            append(sb, "warmup", warmupRuns);
+        }
+        if (inlineThresholdBytes != null) {
+            append(sb, "inline.max_bytes", inlineThresholdBytes);
+        }
+        if (maxWorkerMemoryMb > 0) {
+            append(sb, "recycle.max_rss_mb", maxWorkerMemoryMb);
+        }
+        if (maxRequestsPerWorker > 0) {
+            append(sb, "recycle.max_requests", maxRequestsPerWorker);
+        }
+        return sb.toString();
+    }
+
+    static void append(StringBuilder sb, String key, Object value) {
+        sb.append(key).append('=').append(value).append('\n');
+    }
+}
@@ -0,0 +1,135 @@
+package com.jpyrust;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+public final class DetectionResult {
+
+    private static final int HEADER_SIZE = 8;
+
+    private ByteBuffer buffer;
+    private int count;
+    private int scoresOffset;
+    private int classIdsOffset;
+    private int labelCount;
+    private int labelsOffset;
+    private int trailerOffset;
+    private String[] labelCache = new String[0];
+
+    public static DetectionResult wrap(byte[] data) {
+        return new DetectionResult().reset(ByteBuffer.wrap(data));
+    }
+
+    public DetectionResult reset(ByteBuffer data) {
+        ByteBuffer buf = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.remaining() < HEADER_SIZE) {
+            throw new IllegalArgumentException("Detection result too short: " + buf.remaining() + " bytes");
+        }
+        int n = buf.getInt(0);
+        int labels = buf.getInt(4);
+        int scores = HEADER_SIZE + n * 16;
+        int classIds = scores + n * 4;
+        int table = classIds + n * 4;
+        if (n < 0 || labels < 0 || table > buf.remaining()) {
+            throw new IllegalArgumentException("Malformed detection result: count=" + n + ", size=" + buf.remaining());
+        }
+        this.buffer = buf;
+        this.count = n;
+        this.scoresOffset = scores;
+        this.classIdsOffset = classIds;
+        this.labelCount = labels;
+        this.labelsOffset = table;
+        this.trailerOffset = -1;
+        if (labelCache.length < labels) {
+            labelCache = new String[labels];
+        } else {
+            java.util.Arrays.fill(labelCache, null);
+        }
+        return this;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public float x(int index) {
+        return buffer.getFloat(boxOffset(index));
+    }
+
+    public float y(int index) {
+        return buffer.getFloat(boxOffset(index) + 4);
+    }
+
+    public float width(int index) {
+        return buffer.getFloat(boxOffset(index) + 8);
+    }
+
+    public float height(int index) {
+        return buffer.getFloat(boxOffset(index) + 12);
+    }
+
+    public float score(int index) {
+        checkIndex(index);
+        return buffer.getFloat(scoresOffset + index * 4);
+    }
+
+    public int classId(int index) {
+        checkIndex(index);
+        return buffer.getInt(classIdsOffset + index * 4);
+    }
+
+    public String label(int index) {
+        int classId = classId(index);
+        int offset = labelsOffset;
+        for (int i = 0; i < labelCount; i++) {
+            int id = buffer.getInt(offset);
+            int len = Short.toUnsignedInt(buffer.getShort(offset + 4));
+            if (id == classId) {
+                if (labelCache[i] == null) {
+                    byte[] name = new byte[len];
+                    buffer.get(offset + 6, name);
+                    labelCache[i] = new String(name, StandardCharsets.UTF_8);
+                }
+                return labelCache[i];
+            }
+            offset += 6 + len;
+        }
+        return Integer.toString(classId);
+    }
+
+    public int inputSize() {
+        int offset = trailerOffset();
+        return buffer.limit() - offset >= 4 ? buffer.getInt(offset) : 0;
+    }
+
+    // Tracked results append one i32 track id per detection after the input size; plain
+    // detections have none and report -1.
+    public int trackId(int index) {
+        checkIndex(index);
+        int offset = trailerOffset() + 4;
+        return buffer.limit() - offset >= count * 4 ? buffer.getInt(offset + index * 4) : -1;
+    }
+
+    private int trailerOffset() {
+        if (trailerOffset < 0) {
+            int offset = labelsOffset;
+            for (int i = 0; i < labelCount; i++) {
+                offset += 6 + Short.toUnsignedInt(buffer.getShort(offset + 4));
+            }
+            trailerOffset = offset;
+        }
+        return trailerOffset;
+    }
+
+    private int boxOffset(int index) {
+        checkIndex(index);
+        return HEADER_SIZE + index * 16;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Detection " + index + " out of range [0, " + count + ")");
+        }
+    }
+}
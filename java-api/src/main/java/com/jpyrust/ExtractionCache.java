@@ -0,0 +1,226 @@
+package com.jpyrust;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+final class ExtractionCache {
+
+    static final String STAMP_FILE = ".jpyrust-source";
+
+    private static final Map<Path, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private ExtractionCache() {
+    }
+
+    static Path root() {
+        String configured = System.getProperty("jpyrust.cache.dir", System.getenv("JPYRUST_CACHE_DIR"));
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".jpyrust", "cache");
+    }
+
+    static URL resource(String resourcePath) throws FileNotFoundException {
+        URL url = NativeLoader.class.getResource(resourcePath);
+        if (url == null) {
+            throw new FileNotFoundException("Resource not found: " + resourcePath);
+        }
+        return url;
+    }
+
+    static String fingerprint(URL resource) throws IOException {
+        try (InputStream in = resource.openStream()) {
+            return fingerprint(in);
+        }
+    }
+
+    static String fingerprint(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return fingerprint(in);
+        }
+    }
+
+    private static String fingerprint(InputStream in) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            sha256.update(buffer, 0, n);
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    static Path cachedFile(URL resource, String fileName) throws IOException {
+        Path target = root().resolve(fingerprint(resource)).resolve(fileName);
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(fileName + ".tmp-" + UUID.randomUUID());
+        try (InputStream in = resource.openStream()) {
+            Files.copy(in, temp);
+        }
+        publish(temp, target);
+        return target;
+    }
+
+    static boolean syncFile(URL resource, Path target) throws IOException {
+        if (Files.isRegularFile(target) && fingerprint(target).equals(fingerprint(resource))) {
+            return false;
+        }
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp-" + UUID.randomUUID());
+        try (InputStream in = resource.openStream()) {
+            Files.copy(in, temp);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    static boolean syncZip(URL resource, Path targetDir) throws IOException {
+        String source = fingerprint(resource);
+        Path stamp = targetDir.resolve(STAMP_FILE);
+        return withLock(targetDir, () -> {
+            if (Files.isRegularFile(stamp)
+                    && source.equals(new String(Files.readAllBytes(stamp), StandardCharsets.UTF_8).trim())) {
+                return false;
+            }
+            Files.deleteIfExists(stamp);
+            Path archive = localCopy(resource, targetDir);
+            try {
+                unzip(archive, targetDir);
+            } finally {
+                if (!archive.equals(fileOf(resource))) {
+                    Files.deleteIfExists(archive);
+                }
+            }
+            Files.write(stamp, source.getBytes(StandardCharsets.UTF_8));
+            return true;
+        });
+    }
+
+    private static Path localCopy(URL resource, Path targetDir) throws IOException {
+        Path file = fileOf(resource);
+        if (file != null) {
+            return file;
+        }
+        Path temp = targetDir.resolveSibling(targetDir.getFileName() + ".zip.tmp-" + UUID.randomUUID());
+        try (InputStream in = resource.openStream()) {
+            Files.copy(in, temp);
+        }
+        return temp;
+    }
+
+    private static Path fileOf(URL resource) {
+        if (!"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(resource.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static void unzip(Path archive, Path targetDir) throws IOException {
+        Path root = targetDir.toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            List<ZipEntry> files = new ArrayList<>();
+            for (ZipEntry entry : Collections.list(zip.entries())) {
+                Path path = root.resolve(entry.getName()).normalize();
+                if (!path.startsWith(root)) {
+                    throw new IOException("Zip entry is outside of the target dir: " + entry.getName());
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(path);
+                } else {
+                    Files.createDirectories(path.getParent());
+                    files.add(entry);
+                }
+            }
+            try {
+                files.parallelStream().forEach(entry -> {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        Files.copy(in, root.resolve(entry.getName()).normalize(), StandardCopyOption.REPLACE_EXISTING);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static void publish(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(temp);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temp, target);
+            } catch (FileAlreadyExistsException raced) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    interface Locked<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    // Serialises setup of one directory across threads (ReentrantLock) and across JVMs
+    // (an OS file lock next to it); the file lock alone throws on same-JVM overlap.
+    static <T, E extends Exception> T withLock(Path dir, Locked<T, E> action) throws IOException, E {
+        Path lockFile = dir.toAbsolutePath().normalize().resolveSibling(dir.getFileName() + ".lock");
+        ReentrantLock local = LOCAL_LOCKS.computeIfAbsent(lockFile, k -> new ReentrantLock());
+        local.lock();
+        try {
+            Files.createDirectories(lockFile.getParent());
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                channel.lock(); // released when the channel closes
+                return action.run();
+            }
+        } finally {
+            local.unlock();
+        }
+    }
+}
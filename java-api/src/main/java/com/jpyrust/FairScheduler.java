@@ -0,0 +1,118 @@
+package com.jpyrust;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Hands out a fixed number of in-flight slots across clients. When slots are short, the
+// next free one goes to the waiting client served least recently, so one camera with a
+// deep backlog cannot starve another that sends a frame now and then.
+final class FairScheduler {
+
+    static final class Ticket {
+        private final String client;
+        private volatile boolean granted;
+
+        private Ticket(String client) {
+            this.client = client;
+        }
+
+        boolean isGranted() {
+            return granted;
+        }
+    }
+
+    private final int slots;
+    private final Map<String, ArrayDeque<Ticket>> waiting = new LinkedHashMap<>();
+    private final Map<String, Long> lastServed = new HashMap<>();
+    private long clock;
+    private int inUse;
+
+    FairScheduler(int slots) {
+        this.slots = Math.max(1, slots);
+    }
+
+    <T> T run(String client, Supplier<T> task) {
+        Ticket ticket = enqueue(client);
+        try {
+            await(ticket);
+        } catch (InterruptedException e) {
+            cancel(ticket);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a shared worker", e);
+        }
+        try {
+            return task.get();
+        } finally {
+            release();
+        }
+    }
+
+    synchronized Ticket enqueue(String client) {
+        Ticket ticket = new Ticket(client);
+        if (inUse < slots && waiting.isEmpty()) {
+            grant(ticket);
+        } else {
+            waiting.computeIfAbsent(client, k -> new ArrayDeque<>()).add(ticket);
+        }
+        return ticket;
+    }
+
+    synchronized void await(Ticket ticket) throws InterruptedException {
+        while (!ticket.isGranted()) {
+            wait();
+        }
+    }
+
+    synchronized void release() {
+        inUse--;
+        String next = null;
+        for (String client : waiting.keySet()) {
+            if (next == null || lastServed.getOrDefault(client, 0L) < lastServed.getOrDefault(next, 0L)) {
+                next = client;
+            }
+        }
+        if (next != null) {
+            ArrayDeque<Ticket> queue = waiting.get(next);
+            Ticket ticket = queue.poll();
+            if (queue.isEmpty()) {
+                waiting.remove(next);
+            }
+            grant(ticket);
+            notifyAll();
+        }
+    }
+
+    synchronized void forget(String client) {
+        if (!waiting.containsKey(client)) {
+            lastServed.remove(client);
+        }
+    }
+
+    private synchronized void cancel(Ticket ticket) {
+        if (ticket.isGranted()) {
+            release();
+            return;
+        }
+        ArrayDeque<Ticket> queue = waiting.get(ticket.client);
+        if (queue != null) {
+            for (Iterator<Ticket> it = queue.iterator(); it.hasNext();) {
+                if (it.next() == ticket) {
+                    it.remove();
+                }
+            }
+            if (queue.isEmpty()) {
+                waiting.remove(ticket.client);
+            }
+        }
+    }
+
+    private void grant(Ticket ticket) {
+        ticket.granted = true;
+        inUse++;
+        lastServed.put(ticket.client, ++clock);
+    }
+}
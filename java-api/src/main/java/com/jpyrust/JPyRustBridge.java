@@ -3,14 +3,35 @@ package com.jpyrust;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class JPyRustBridge {
 
@@ -22,15 +43,55 @@ public class JPyRustBridge {
         }
     }
 
+    private static final int MAX_NLP_BATCH = 65536;
+    private static final int DEFAULT_TILE_SIZE = 640;
+    private static final int DEFAULT_TILE_OVERLAP = 128;
+    private static final float TILE_NMS_IOU = 0.5f;
+    private static final int PLUGIN_CACHE_SIZE = 1024;
+
     private final String instanceId;
+    private final BridgeConfig config;
+    private final AdaptiveResolution resolution;
+    private final boolean shareable;
+    private final Map<String, byte[]> pluginCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                    return size() > PLUGIN_CACHE_SIZE;
+                }
+            });
+    private volatile Map<String, PluginInfo> plugins;
+    private WorkerPool pool;
+    private volatile TrafficRecorder recorder;
+    private volatile ExecutorService fanOut;
     private long nativePtr = 0;
     private boolean initialized = false;
+    private volatile Readiness readiness = Readiness.NOT_STARTED;
     private String workDir;
+    private String nativeOptions = "";
+    private String modelPath;
+    private float confidence;
     private Path pythonHome;
     private Path pythonExe;
 
     public JPyRustBridge(String instanceId) {
+        this(instanceId, new BridgeConfig());
+    }
+
+    public JPyRustBridge(String instanceId, BridgeConfig config) {
+        this(instanceId, config, true);
+    }
+
+    private JPyRustBridge(String instanceId, BridgeConfig config, boolean shareable) {
         this.instanceId = instanceId;
+        this.config = config;
+        this.shareable = shareable;
+        long latencyTarget = config.detectionLatencyTargetMs();
+        this.resolution = latencyTarget > 0 ? new AdaptiveResolution(latencyTarget) : null;
+    }
+
+    static JPyRustBridge dedicated(String instanceId, BridgeConfig config) {
+        return new JPyRustBridge(instanceId, config, false);
     }
 
     public synchronized void initialize() {
@@ -54,6 +115,37 @@ public class JPyRustBridge {
         }
 
         this.workDir = workDirectory;
+        this.modelPath = modelPath;
+        this.confidence = confidence;
+        this.readiness = Readiness.STARTING;
+        // Blocking native calls fanned out per request; threads are only started on first use.
+        this.fanOut = Executors.newFixedThreadPool(config.parallelism(), task -> {
+            Thread thread = new Thread(task, "jpyrust-fanout-" + instanceId);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (shareable && config.trafficCapture() != null) {
+            try {
+                recorder = new TrafficRecorder(config.trafficCapture(), config.trafficSampleRate());
+            } catch (IOException e) {
+                readiness = Readiness.FAILED;
+                throw new RuntimeException("Failed to open traffic capture " + config.trafficCapture(), e);
+            }
+        }
+
+        if (shareable && config.sharedPool() != null) {
+            try {
+                pool = WorkerPool.join(config.sharedPool(), config, workDirectory, modelPath, confidence, memoryKey);
+            } catch (RuntimeException e) {
+                readiness = Readiness.FAILED;
+                throw e;
+            }
+            this.workDir = pool.owner().workDir;
+            initialized = true;
+            readiness = Readiness.READY;
+            return;
+        }
 
         try {
             Path workPath = Paths.get(workDir);
@@ -63,10 +155,16 @@ public class JPyRustBridge {
 
             setupEmbeddedPython(workPath);
 
-            initNative(workDir, workDir, modelPath, confidence, memoryKey);
+            nativeOptions = config.toNativeOptions();
+            if (initNative(workDir, workDir, modelPath, confidence, memoryKey) == 0) {
+                closeNative();
+                throw new IllegalStateException("No worker came up; see the worker start errors above");
+            }
             initialized = true;
+            readiness = Readiness.READY;
 
         } catch (Exception e) {
+            readiness = Readiness.FAILED;
             throw new RuntimeException("Failed to initialize JPyRustBridge", e);
         }
     }
@@ -93,47 +191,55 @@ public class JPyRustBridge {
         Path pythonDistDir = targetDir.resolve("python_dist");
         Path markerFile = pythonDistDir.resolve(".installed");
 
-        if (!Files.exists(markerFile)) {
-            Path sitePackages = pythonDistDir.resolve("Lib/site-packages");
-            if (Files.exists(pythonDistDir.resolve("python.exe")) &&
-                    (Files.exists(sitePackages.resolve("ultralytics"))
-                            || Files.exists(sitePackages.resolve("torch")))) {
-                Files.createFile(markerFile);
-                this.pythonHome = pythonDistDir;
-                this.pythonExe = pythonDistDir.resolve("python.exe");
-                return;
-            }
-
-            NativeLoader.extractZip("/python_dist.zip", pythonDistDir);
-
-            Path pthFile = pythonDistDir.resolve("python311._pth");
-            if (Files.exists(pthFile)) {
-                Files.write(pthFile, "python311.zip\n.\nimport site".getBytes());
+        ExtractionCache.withLock(targetDir, () -> {
+            URL dist = NativeLoader.class.getResource("/python_dist.zip");
+            boolean extracted = dist != null && ExtractionCache.syncZip(dist, pythonDistDir);
+            if (extracted) {
+                Files.deleteIfExists(markerFile);
             }
 
-            Path pyExe = pythonDistDir.resolve("python.exe");
-            Path requirements = targetDir.resolve("requirements.txt");
+            if (!Files.exists(markerFile)) {
+                Path sitePackages = pythonDistDir.resolve("Lib/site-packages");
+                if (!extracted && Files.exists(pythonDistDir.resolve("python.exe")) &&
+                        (Files.exists(sitePackages.resolve("ultralytics"))
+                                || Files.exists(sitePackages.resolve("torch")))) {
+                    Files.createFile(markerFile);
+                    return null;
+                }
+                if (dist == null) {
+                    throw new FileNotFoundException("Resource not found: /python_dist.zip");
+                }
 
-            if (Files.exists(requirements)) {
-                ProcessBuilder pipPb = new ProcessBuilder(
-                        pyExe.toString(),
-                        "-m", "pip", "install",
-                        "--no-index",
-                        "--find-links=wheels",
-                        "-r", requirements.toString());
-                pipPb.directory(targetDir.toFile());
-                pipPb.redirectErrorStream(true);
-                Process pipProc = pipPb.start();
+                Path pthFile = pythonDistDir.resolve("python311._pth");
+                if (Files.exists(pthFile)) {
+                    Files.write(pthFile, "python311.zip\n.\nimport site".getBytes());
+                }
 
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(pipProc.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
+                Path pyExe = pythonDistDir.resolve("python.exe");
+                Path requirements = targetDir.resolve("requirements.txt");
+
+                if (Files.exists(requirements)) {
+                    ProcessBuilder pipPb = new ProcessBuilder(
+                            pyExe.toString(),
+                            "-m", "pip", "install",
+                            "--no-index",
+                            "--find-links=wheels",
+                            "-r", requirements.toString());
+                    pipPb.directory(targetDir.toFile());
+                    pipPb.redirectErrorStream(true);
+                    Process pipProc = pipPb.start();
+
+                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(pipProc.getInputStream()))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                        }
                     }
+                    pipProc.waitFor();
                 }
-                pipProc.waitFor();
+                Files.createFile(markerFile);
             }
-            Files.createFile(markerFile);
-        }
+            return null;
+        });
 
         this.pythonHome = pythonDistDir;
         this.pythonExe = pythonDistDir.resolve("python.exe");
@@ -144,33 +250,44 @@ public class JPyRustBridge {
         Path venvDir = targetDir.resolve("venv");
         Path venvPython = venvDir.resolve("bin/python3");
 
-        NativeLoader.extractFile("/ai_worker.py", targetDir.resolve("ai_worker.py"));
-        Path requirements = targetDir.resolve("requirements.txt");
-        NativeLoader.extractFile("/requirements.txt", requirements);
-
-        if (!Files.exists(markerFile)) {
-            String systemPython = findSystemPython3();
-
-            ProcessBuilder venvPb = new ProcessBuilder(systemPython, "-m", "venv", venvDir.toString());
-            venvPb.redirectErrorStream(true);
-            Process venvProc = venvPb.start();
-            drainQuietly(venvProc);
-            if (venvProc.waitFor() != 0) {
-                throw new RuntimeException("Failed to create Python venv using: " + systemPython);
+        ExtractionCache.withLock(targetDir, () -> {
+            NativeLoader.extractFile("/ai_worker.py", targetDir.resolve("ai_worker.py"));
+            Path requirements = targetDir.resolve("requirements.txt");
+            NativeLoader.extractFile("/requirements.txt", requirements);
+
+            String installed = Files.exists(markerFile)
+                    ? new String(Files.readAllBytes(markerFile), StandardCharsets.UTF_8).trim()
+                    : null;
+            String wanted = ExtractionCache.fingerprint(requirements);
+
+            if (!Files.exists(venvPython)) {
+                String systemPython = findSystemPython3();
+
+                ProcessBuilder venvPb = new ProcessBuilder(systemPython, "-m", "venv", venvDir.toString());
+                venvPb.redirectErrorStream(true);
+                Process venvProc = venvPb.start();
+                drainQuietly(venvProc);
+                if (venvProc.waitFor() != 0) {
+                    throw new RuntimeException("Failed to create Python venv using: " + systemPython);
+                }
+                installed = null;
             }
 
-            ProcessBuilder pipPb = new ProcessBuilder(
-                    venvPython.toString(), "-m", "pip", "install", "-r", requirements.toString());
-            pipPb.directory(targetDir.toFile());
-            pipPb.redirectErrorStream(true);
-            Process pipProc = pipPb.start();
-            drainQuietly(pipProc);
-            if (pipProc.waitFor() != 0) {
-                throw new RuntimeException("pip install failed for requirements.txt in " + venvDir);
-            }
+            if (!wanted.equals(installed)) {
+                ProcessBuilder pipPb = new ProcessBuilder(
+                        venvPython.toString(), "-m", "pip", "install", "-r", requirements.toString());
+                pipPb.directory(targetDir.toFile());
+                pipPb.redirectErrorStream(true);
+                Process pipProc = pipPb.start();
+                drainQuietly(pipProc);
+                if (pipProc.waitFor() != 0) {
+                    throw new RuntimeException("pip install failed for requirements.txt in " + venvDir);
+                }
 
-            Files.createFile(markerFile);
-        }
+                Files.write(markerFile, wanted.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
 
         this.pythonHome = targetDir;
         this.pythonExe = venvPython;
@@ -199,27 +316,234 @@ public class JPyRustBridge {
         }
     }
 
+    public Readiness getReadiness() {
+        return readiness;
+    }
+
+    public boolean isReady() {
+        return readiness == Readiness.READY;
+    }
+
     public void log(String level, String msg) {
         System.out.println("[JPyRust-" + instanceId + "] [" + level + "] " + msg);
     }
 
-    private native void initNative(String workDir, String sourceScriptDir, String modelPath, float confidence,
+    private native int initNative(String workDir, String sourceScriptDir, String modelPath, float confidence,
             String memoryKey);
 
     private native void closeNative();
 
+    private native int reloadNative(String modelPath, float confidence);
+
+    private native int broadcastTask(String taskType, String requestId, String metadata);
+
+    private native byte[] gatherTask(String taskType, String requestId, String metadata);
+
+    private native long[] transportCounts();
+
     private native byte[] executeTask(String workDir, String taskType, String requestId, String metadata,
             ByteBuffer data, int length);
 
+    private native byte[] executePinned(String taskType, String requestId, String metadata, ByteBuffer data,
+            int length, String key);
+
+    private byte[] execute(String taskType, String requestId, String metadata, ByteBuffer data, int length) {
+        return execute(taskType, requestId, metadata, data, length, null);
+    }
+
+    private byte[] execute(String taskType, String requestId, String metadata, ByteBuffer data, int length,
+            String pinKey) {
+        TrafficRecorder capture = recorder;
+        if (capture != null) {
+            try {
+                capture.record(taskType, pinKey, metadata, data, length);
+            } catch (IOException e) {
+                stopRecording(capture, e);
+            }
+        }
+        if (pool == null) {
+            return dispatch(taskType, requestId, metadata, data, length, pinKey);
+        }
+        JPyRustBridge owner = pool.owner();
+        return pool.run(instanceId, () -> owner.dispatch(taskType, requestId, metadata, data, length, pinKey));
+    }
+
+    // A capture that cannot be written (full disk, closed underneath us) is dropped; the
+    // request that hit the failure goes on without it.
+    private synchronized void stopRecording(TrafficRecorder capture, IOException cause) {
+        if (recorder != capture) {
+            return;
+        }
+        recorder = null;
+        log("WARN", "Traffic capture stopped after a write failure: " + cause.getMessage());
+        try {
+            capture.close();
+        } catch (IOException e) {
+            log("WARN", "Failed to close traffic capture: " + e.getMessage());
+        }
+    }
+
+    // Runs any task type the workers know, e.g. STATUS or a plugin without a manifest.
+    public byte[] sendTask(String taskType, String metadata, ByteBuffer data, int length) {
+        if (!initialized) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        return execute(taskType, java.util.UUID.randomUUID().toString(), metadata, data, length);
+    }
+
+    byte[] replay(String taskType, String metadata, ByteBuffer data, int length, String pinKey) {
+        if (!initialized) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        return execute(taskType, java.util.UUID.randomUUID().toString(), metadata, data, length, pinKey);
+    }
+
+    private byte[] dispatch(String taskType, String requestId, String metadata, ByteBuffer data, int length,
+            String pinKey) {
+        if (pinKey == null) {
+            return executeTask(workDir, taskType, requestId, metadata, data, length);
+        }
+        return executePinned(taskType, requestId, metadata, data, length, pinKey);
+    }
+
+    private byte[] executeDetection(String requestId, String metadata, ByteBuffer data, int length) {
+        return executeDetection(requestId, metadata, data, length, null);
+    }
+
+    private byte[] executeDetection(String requestId, String metadata, ByteBuffer data, int length, String pinKey) {
+        if (resolution == null) {
+            return execute("YOLO", requestId, metadata, data, length, pinKey);
+        }
+        long start = System.nanoTime();
+        byte[] result = execute("YOLO", requestId, metadata + " IMGSZ " + resolution.current(), data, length,
+                pinKey);
+        resolution.record(System.nanoTime() - start);
+        return result;
+    }
+
     public byte[] processImage(ByteBuffer data, int length, int width, int height, int channels) {
         String requestId = java.util.UUID.randomUUID().toString();
         String metadata = width + " " + height + " " + channels;
-        return executeTask(this.workDir, "YOLO", requestId, metadata, data, length);
+        return executeDetection(requestId, metadata, data, length);
     }
 
     public byte[] processImage(ByteBuffer data, int length, int width, int height, int channels, String requestId) {
         String metadata = width + " " + height + " " + channels;
-        return executeTask(this.workDir, "YOLO", requestId, metadata, data, length);
+        return executeDetection(requestId, metadata, data, length);
+    }
+
+    public byte[] processImage(ByteBuffer data, int length, MotionGate gate) {
+        String requestId = java.util.UUID.randomUUID().toString();
+        return executeDetection(requestId, "0 0 0 " + gate.flags(), data, length);
+    }
+
+    public byte[] processEncodedImage(InputStream in, long sizeHint, long maxBytes) throws IOException {
+        ByteBuffer data = StreamingInput.read(in, sizeHint, maxBytes);
+        return processImage(data, data.remaining(), 0, 0, 0);
+    }
+
+    public byte[] processEncodedEdgeDetection(InputStream in, long sizeHint, long maxBytes) throws IOException {
+        ByteBuffer data = StreamingInput.read(in, sizeHint, maxBytes);
+        String requestId = java.util.UUID.randomUUID().toString();
+        return execute("EDGE_DETECT", requestId, "0 0 0 ENCODED", data, data.remaining());
+    }
+
+    public DetectionResult processImageDetections(ByteBuffer data, int length) {
+        return processImageDetections(data, length, new DetectionResult());
+    }
+
+    public DetectionResult processImageDetections(ByteBuffer data, int length, DetectionResult reuse) {
+        return detections("0 0 0 BINARY", data, length, reuse);
+    }
+
+    public DetectionResult processImageDetections(ByteBuffer data, int length, DetectionResult reuse, MotionGate gate) {
+        return detections("0 0 0 BINARY " + gate.flags(), data, length, reuse);
+    }
+
+    // Every frame of a tracked stream goes to the same worker, which holds its tracker.
+    public DetectionResult processImageTracks(ByteBuffer data, int length, DetectionResult reuse, Tracker tracker) {
+        return detections("0 0 0 BINARY " + tracker.flags(), data, length, reuse, tracker.getStreamId());
+    }
+
+    public void closeTracker(Tracker tracker) {
+        String requestId = java.util.UUID.randomUUID().toString();
+        execute("TRACK", requestId, "CLOSE " + tracker.getStreamId(), ByteBuffer.allocateDirect(1), 0,
+                tracker.getStreamId());
+    }
+
+    private DetectionResult detections(String metadata, ByteBuffer data, int length, DetectionResult reuse) {
+        return detections(metadata, data, length, reuse, null);
+    }
+
+    private DetectionResult detections(String metadata, ByteBuffer data, int length, DetectionResult reuse,
+            String pinKey) {
+        String requestId = java.util.UUID.randomUUID().toString();
+        byte[] result = executeDetection(requestId, metadata, data, length, pinKey);
+        if (result == null) {
+            throw new RuntimeException("YOLO detection failed: native execution returned no result");
+        }
+        return reuse.reset(ByteBuffer.wrap(result));
+    }
+
+    public BatchJob batchJob() {
+        return new BatchJob(packed -> detectBatch(packed, packed.remaining()), this::parallelism);
+    }
+
+    byte[] detectBatch(ByteBuffer packed, int length) {
+        if (!initialized) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        String requestId = java.util.UUID.randomUUID().toString();
+        return execute("YOLO", requestId, "0 0 0 BINARY BATCH", packed, length);
+    }
+
+    int parallelism() {
+        return config.parallelism();
+    }
+
+    public DetectionResult processImageTiled(ByteBuffer data, int length) {
+        return processImageTiled(data, length, DEFAULT_TILE_SIZE, DEFAULT_TILE_OVERLAP);
+    }
+
+    public DetectionResult processImageTiled(ByteBuffer data, int length, int tileSize, int overlap) {
+        if (tileSize <= 0 || overlap < 0 || overlap >= tileSize) {
+            throw new IllegalArgumentException("Invalid tiling: tileSize=" + tileSize + ", overlap=" + overlap);
+        }
+        int parts = config.parallelism();
+        String metadata = "0 0 0 BINARY TILED " + tileSize + " " + overlap + " ";
+        List<DetectionResult> results = fanOut(IntStream.range(0, parts).boxed().collect(Collectors.toList()), part -> {
+            String requestId = java.util.UUID.randomUUID().toString();
+            byte[] result = execute("YOLO", requestId, metadata + part + " " + parts, data, length);
+            if (result == null) {
+                throw new RuntimeException("Tiled YOLO detection failed: native execution returned no result");
+            }
+            return DetectionResult.wrap(result);
+        });
+        return TileMerger.merge(results, TILE_NMS_IOU);
+    }
+
+    // Runs one call per item on the bridge's own threads, at most parallelism() at a time,
+    // and returns the results in input order.
+    private <T, R> List<R> fanOut(List<T> items, Function<T, R> call) {
+        ExecutorService executor = fanOut;
+        if (!initialized || executor == null) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(CompletableFuture.supplyAsync(() -> call.apply(item), executor));
+        }
+        List<R> results = new ArrayList<>(items.size());
+        try {
+            for (CompletableFuture<R> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(false));
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+        }
+        return results;
     }
 
     public byte[] processEdgeDetection(byte[] imageData, int width, int height, int channels) {
@@ -231,8 +555,7 @@ public class JPyRustBridge {
             String metadata = width + " " + height + " " + channels;
             String requestId = java.util.UUID.randomUUID().toString();
 
-            byte[] result = executeTask(this.workDir, "EDGE_DETECT", requestId, metadata, directBuffer,
-                    imageData.length);
+            byte[] result = execute("EDGE_DETECT", requestId, metadata, directBuffer, imageData.length);
             return result != null ? result : new byte[0];
         } catch (Exception e) {
             return null;
@@ -249,8 +572,7 @@ public class JPyRustBridge {
             String requestId = java.util.UUID.randomUUID().toString();
             String metadata = "TEXT";
 
-            byte[] resultBytes = executeTask(this.workDir, "NLP_TEXTBLOB", requestId, metadata, directBuffer,
-                    textBytes.length);
+            byte[] resultBytes = execute("NLP_TEXTBLOB", requestId, metadata, directBuffer, textBytes.length);
 
             if (resultBytes == null)
                 return "{\"error\": \"Native execution failed\"}";
@@ -260,6 +582,53 @@ public class JPyRustBridge {
         }
     }
 
+    public SentimentBatch processNlpBatch(List<String> texts) {
+        if (texts.isEmpty()) {
+            return new SentimentBatch(new float[0], new byte[0]);
+        }
+        if (texts.size() > MAX_NLP_BATCH) {
+            throw new IllegalArgumentException(
+                    "NLP batch too large: " + texts.size() + " texts (max " + MAX_NLP_BATCH + ")");
+        }
+
+        byte[][] encoded = new byte[texts.size()][];
+        int length = 4;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = texts.get(i).getBytes(StandardCharsets.UTF_8);
+            length += 4 + encoded[i].length;
+        }
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(length).order(ByteOrder.LITTLE_ENDIAN);
+        directBuffer.putInt(encoded.length);
+        for (byte[] text : encoded) {
+            directBuffer.putInt(text.length);
+            directBuffer.put(text);
+        }
+        directBuffer.flip();
+
+        String requestId = java.util.UUID.randomUUID().toString();
+        byte[] resultBytes = execute("NLP_BATCH", requestId, "PACKED", directBuffer, length);
+        if (resultBytes == null || resultBytes.length < 4) {
+            throw new RuntimeException("NLP batch failed: native execution returned no result");
+        }
+        return SentimentBatch.decode(resultBytes, encoded.length);
+    }
+
+    public void processNlpStream(Iterator<String> texts, int batchSize, Consumer<SentimentBatch> sink) {
+        int chunk = Math.max(1, Math.min(batchSize, MAX_NLP_BATCH));
+        List<String> pending = new ArrayList<>(chunk);
+        while (texts.hasNext()) {
+            pending.add(texts.next());
+            if (pending.size() == chunk) {
+                sink.accept(processNlpBatch(pending));
+                pending.clear();
+            }
+        }
+        if (!pending.isEmpty()) {
+            sink.accept(processNlpBatch(pending));
+        }
+    }
+
     public String processRegression(String jsonPoints) {
         try {
             byte[] jsonBytes = jsonPoints.getBytes("UTF-8");
@@ -270,8 +639,7 @@ public class JPyRustBridge {
             String requestId = java.util.UUID.randomUUID().toString();
             String metadata = "JSON";
 
-            byte[] resultBytes = executeTask(this.workDir, "REGRESSION", requestId, metadata, directBuffer,
-                    jsonBytes.length);
+            byte[] resultBytes = execute("REGRESSION", requestId, metadata, directBuffer, jsonBytes.length);
 
             if (resultBytes == null)
                 return "{\"error\": \"Native execution failed\"}";
@@ -281,6 +649,207 @@ public class JPyRustBridge {
         }
     }
 
+    public RegressionResult processRegression(double[] x, double[] y) {
+        return processRegression(DoubleBuffer.wrap(x), DoubleBuffer.wrap(y));
+    }
+
+    public RegressionResult processRegression(DoubleBuffer x, DoubleBuffer y) {
+        return executeRegression("FIT NONE", x, y, null);
+    }
+
+    public RegressionResult updateRegression(String sessionId, double[] x, double[] y) {
+        return updateRegression(sessionId, DoubleBuffer.wrap(x), DoubleBuffer.wrap(y));
+    }
+
+    public RegressionResult updateRegression(String sessionId, DoubleBuffer x, DoubleBuffer y) {
+        return executeRegression("UPDATE " + checkSessionId(sessionId), x, y, sessionId);
+    }
+
+    public RegressionResult queryRegression(String sessionId) {
+        return executeRegression("QUERY " + checkSessionId(sessionId), DoubleBuffer.allocate(0),
+                DoubleBuffer.allocate(0), sessionId);
+    }
+
+    public void resetRegression(String sessionId) {
+        executeRegression("RESET " + checkSessionId(sessionId), DoubleBuffer.allocate(0), DoubleBuffer.allocate(0),
+                sessionId);
+    }
+
+    // Session state lives in one worker, so every call for a session is pinned to it by id.
+    private RegressionResult executeRegression(String metadata, DoubleBuffer x, DoubleBuffer y, String pinKey) {
+        int count = x.remaining();
+        if (y.remaining() != count) {
+            throw new IllegalArgumentException(
+                    "Regression columns differ in length: x=" + count + ", y=" + y.remaining());
+        }
+
+        int length = 8 + count * 16;
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(length).order(ByteOrder.LITTLE_ENDIAN);
+        directBuffer.putLong(count);
+        DoubleBuffer columns = directBuffer.asDoubleBuffer();
+        columns.put(x.duplicate());
+        columns.put(y.duplicate());
+        directBuffer.clear();
+
+        String requestId = java.util.UUID.randomUUID().toString();
+        byte[] resultBytes = execute("REGRESSION_COLS", requestId, metadata, directBuffer, length, pinKey);
+        return RegressionResult.decode(resultBytes);
+    }
+
+    public Table processTable(String op, Table table, String... args) {
+        StringBuilder metadata = new StringBuilder(checkToken("Table op", op));
+        for (String arg : args) {
+            metadata.append(' ').append(checkToken("Table argument", arg));
+        }
+        ByteBuffer data = table.buffer();
+        if (!data.isDirect()) {
+            data = ByteBuffer.allocateDirect(data.remaining()).put(data).flip();
+        }
+        String requestId = java.util.UUID.randomUUID().toString();
+        byte[] result = execute("TABLE", requestId, metadata.toString(), data, data.remaining());
+        if (result == null || result.length == 0) {
+            throw new RuntimeException("Table task " + op + " failed: native execution returned no result");
+        }
+        return Table.wrap(result);
+    }
+
+    public Map<String, PluginInfo> getPluginManifest() {
+        if (!initialized) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        WorkerPool shared = pool;
+        if (shared != null) {
+            return shared.owner().getPluginManifest();
+        }
+        Map<String, PluginInfo> current = plugins;
+        if (current == null) {
+            String requestId = java.util.UUID.randomUUID().toString();
+            byte[] result = execute("PLUGINS", requestId, "NONE", ByteBuffer.allocateDirect(1), 0);
+            if (result == null) {
+                throw new RuntimeException("Plugin manifest request failed: native execution returned no result");
+            }
+            current = PluginInfo.parseManifest(new String(result, StandardCharsets.UTF_8));
+            plugins = current;
+        }
+        return current;
+    }
+
+    public String callPlugin(String taskType, String input, String... args) {
+        return new String(callPlugin(taskType, input.getBytes(StandardCharsets.UTF_8), args), StandardCharsets.UTF_8);
+    }
+
+    public byte[] callPlugin(String taskType, byte[] input, String... args) {
+        PluginInfo info = plugin(taskType);
+        String metadata = pluginMetadata("CALL", args);
+        String key = info.isPure() ? cacheKey(taskType, metadata, input) : null;
+        Map<String, byte[]> cache = pluginCache();
+        byte[] cached = key != null ? cache.get(key) : null;
+        if (cached != null) {
+            return cached;
+        }
+        ByteBuffer data = ByteBuffer.allocateDirect(Math.max(1, input.length)).put(input).flip();
+        String requestId = java.util.UUID.randomUUID().toString();
+        byte[] result = execute(taskType, requestId, metadata, data, input.length);
+        if (result == null) {
+            throw new RuntimeException("Plugin " + taskType + " failed: native execution returned no result");
+        }
+        if (key != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    // Batchable plugins get the misses in one BATCH request; the rest fan out over the
+    // worker pool one call each.
+    public List<String> callPluginBatch(String taskType, List<String> inputs, String... args) {
+        PluginInfo info = plugin(taskType);
+        if (!info.isBatchable()) {
+            return fanOut(inputs, input -> callPlugin(taskType, input, args));
+        }
+        String metadata = pluginMetadata("CALL", args);
+        Map<String, byte[]> cache = pluginCache();
+        byte[][] encoded = new byte[inputs.size()][];
+        byte[][] results = new byte[inputs.size()][];
+        List<Integer> misses = new ArrayList<>();
+        int length = 4;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = inputs.get(i).getBytes(StandardCharsets.UTF_8);
+            results[i] = info.isPure() ? cache.get(cacheKey(taskType, metadata, encoded[i])) : null;
+            if (results[i] == null) {
+                misses.add(i);
+                length += 4 + encoded[i].length;
+            }
+        }
+        if (!misses.isEmpty()) {
+            ByteBuffer data = ByteBuffer.allocateDirect(length).order(ByteOrder.LITTLE_ENDIAN);
+            data.putInt(misses.size());
+            for (int i : misses) {
+                data.putInt(encoded[i].length).put(encoded[i]);
+            }
+            data.flip();
+            String requestId = java.util.UUID.randomUUID().toString();
+            byte[] result = execute(taskType, requestId, pluginMetadata("BATCH", args), data, length);
+            if (result == null || result.length < 4) {
+                throw new RuntimeException("Plugin batch " + taskType + " failed: native execution returned no result");
+            }
+            ByteBuffer out = ByteBuffer.wrap(result).order(ByteOrder.LITTLE_ENDIAN);
+            if (out.getInt() != misses.size()) {
+                throw new RuntimeException("Plugin batch " + taskType + " returned the wrong number of results");
+            }
+            for (int i : misses) {
+                results[i] = new byte[out.getInt()];
+                out.get(results[i]);
+                if (info.isPure()) {
+                    cache.put(cacheKey(taskType, metadata, encoded[i]), results[i]);
+                }
+            }
+        }
+        List<String> texts = new ArrayList<>(results.length);
+        for (byte[] result : results) {
+            texts.add(new String(result, StandardCharsets.UTF_8));
+        }
+        return texts;
+    }
+
+    // Pool clients share the owner's manifest and results, so a reload through any of them
+    // invalidates them for the whole pool.
+    private Map<String, byte[]> pluginCache() {
+        WorkerPool shared = pool;
+        return shared != null ? shared.owner().pluginCache : pluginCache;
+    }
+
+    private PluginInfo plugin(String taskType) {
+        PluginInfo info = getPluginManifest().get(taskType);
+        if (info == null) {
+            throw new IllegalArgumentException("No plugin with a manifest registered for task " + taskType);
+        }
+        return info;
+    }
+
+    private static String pluginMetadata(String mode, String... args) {
+        StringBuilder metadata = new StringBuilder(mode);
+        for (String arg : args) {
+            metadata.append(' ').append(checkToken("Plugin argument", arg));
+        }
+        return metadata.toString();
+    }
+
+    // ISO-8859-1 maps every byte to one char, so the key is exact for binary inputs too.
+    private static String cacheKey(String taskType, String metadata, byte[] input) {
+        return taskType + '\n' + metadata + '\n' + new String(input, StandardCharsets.ISO_8859_1);
+    }
+
+    private static String checkToken(String what, String value) {
+        if (value == null || value.isEmpty() || value.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException(what + " must be a non-empty token without whitespace");
+        }
+        return value;
+    }
+
+    private static String checkSessionId(String sessionId) {
+        return checkToken("Session id", sessionId);
+    }
+
     public String runPythonRaw(ByteBuffer data, int length, int width, int height, int channels) {
         String requestId = java.util.UUID.randomUUID().toString();
         String inputFilePath = workDir + "/input_" + requestId + ".dat";
@@ -376,10 +945,129 @@ public class JPyRustBridge {
         }
     }
 
+    public synchronized void reload() {
+        reload(modelPath, confidence);
+    }
+
+    public synchronized void reload(String modelPath, float confidence) {
+        if (!initialized) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        if (pool != null) {
+            pool.owner().reload(modelPath, confidence);
+            this.modelPath = modelPath;
+            this.confidence = confidence;
+            return;
+        }
+        // A script deployed into the work dir wins; the bundled copy only fills a gap.
+        Path script = Paths.get(workDir, "ai_worker.py");
+        if (!Files.exists(script) && NativeLoader.class.getResource("/ai_worker.py") != null) {
+            NativeLoader.extractFile("/ai_worker.py", script);
+        }
+        int failures = reloadNative(modelPath, confidence);
+        plugins = null;
+        pluginCache.clear();
+        this.modelPath = modelPath;
+        this.confidence = confidence;
+        if (failures > 0) {
+            throw new RuntimeException("Reload failed for " + failures + " worker(s); previous workers are still serving");
+        }
+    }
+
+    public int reloadPlugins() {
+        if (!initialized) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        if (pool != null) {
+            return pool.owner().reloadPlugins();
+        }
+        int reloaded = broadcastTask("RELOAD_PLUGINS", java.util.UUID.randomUUID().toString(), "NONE");
+        plugins = null;
+        pluginCache.clear();
+        return reloaded;
+    }
+
+    public int startProfiling(int seconds, long thresholdMillis) {
+        return startProfiling(seconds, thresholdMillis, 5);
+    }
+
+    // Samples the Python stacks of every worker for `seconds`, keeping only requests that ran
+    // for at least thresholdMillis. Returns the number of workers that started profiling.
+    public int startProfiling(int seconds, long thresholdMillis, int intervalMillis) {
+        if (seconds <= 0 || thresholdMillis < 0 || intervalMillis < 1) {
+            throw new IllegalArgumentException("Invalid profiling window: " + seconds + "s, threshold "
+                    + thresholdMillis + "ms, interval " + intervalMillis + "ms");
+        }
+        if (!initialized) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        if (pool != null) {
+            return pool.owner().startProfiling(seconds, thresholdMillis, intervalMillis);
+        }
+        return broadcastTask("PROFILE", java.util.UUID.randomUUID().toString(),
+                "START " + seconds + " " + thresholdMillis + " " + intervalMillis);
+    }
+
+    public int stopProfiling() {
+        if (!initialized) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        if (pool != null) {
+            return pool.owner().stopProfiling();
+        }
+        return broadcastTask("PROFILE", java.util.UUID.randomUUID().toString(), "STOP");
+    }
+
+    public ProfileReport getProfile() {
+        if (!initialized) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        if (pool != null) {
+            return pool.owner().getProfile();
+        }
+        byte[] gathered = gatherTask("PROFILE", java.util.UUID.randomUUID().toString(), "DUMP");
+        if (gathered == null) {
+            throw new RuntimeException("Profile request failed: native execution returned no result");
+        }
+        return ProfileReport.parse(gathered);
+    }
+
+    public Map<String, Long> getTransportCounts() {
+        if (!initialized) {
+            throw new IllegalStateException("JPyRustBridge is not initialized");
+        }
+        long[] counts = pool != null ? pool.owner().transportCounts() : transportCounts();
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("inline", counts[0]);
+        result.put("shmem", counts[1]);
+        result.put("file", counts[2]);
+        return result;
+    }
+
     public synchronized void close() {
         if (initialized) {
-            closeNative();
+            if (pool != null) {
+                WorkerPool.leave(pool, instanceId);
+                pool = null;
+            } else {
+                closeNative();
+            }
+            ExecutorService executor = fanOut;
+            fanOut = null;
+            if (executor != null) {
+                executor.shutdown();
+            }
+            TrafficRecorder capture = recorder;
+            recorder = null;
+            if (capture != null) {
+                try {
+                    capture.close();
+                } catch (IOException e) {
+                    log("WARN", "Failed to close traffic capture: " + e.getMessage());
+                }
+            }
             initialized = false;
+            readiness = Readiness.NOT_STARTED;
         }
     }
 }
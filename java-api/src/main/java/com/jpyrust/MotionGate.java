@@ -0,0 +1,48 @@
+package com.jpyrust;
+
+import java.util.Locale;
+
+public final class MotionGate {
+
+    public static final float DEFAULT_THRESHOLD = 0.02f;
+    public static final int DEFAULT_REFRESH_FRAMES = 30;
+
+    private final String streamId;
+    private final float threshold;
+    private final int refreshFrames;
+
+    public MotionGate(String streamId) {
+        this(streamId, DEFAULT_THRESHOLD, DEFAULT_REFRESH_FRAMES);
+    }
+
+    public MotionGate(String streamId, float threshold, int refreshFrames) {
+        if (streamId == null || streamId.isEmpty() || streamId.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException("streamId must be non-empty without whitespace: " + streamId);
+        }
+        if (threshold < 0f || threshold > 1f) {
+            throw new IllegalArgumentException("threshold must be in [0, 1]: " + threshold);
+        }
+        if (refreshFrames < 1) {
+            throw new IllegalArgumentException("refreshFrames must be >= 1: " + refreshFrames);
+        }
+        this.streamId = streamId;
+        this.threshold = threshold;
+        this.refreshFrames = refreshFrames;
+    }
+
+    public String getStreamId() {
+        return streamId;
+    }
+
+    public float getThreshold() {
+        return threshold;
+    }
+
+    public int getRefreshFrames() {
+        return refreshFrames;
+    }
+
+    String flags() {
+        return String.format(Locale.ROOT, "GATE %s %s %d", streamId, threshold, refreshFrames);
+    }
+}
@@ -1,10 +1,9 @@
 package com.jpyrust;
 
 import java.io.*;
+import java.net.URL;
 import java.nio.file.*;
 import java.util.Locale;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.Locale;
@@ -32,27 +31,27 @@ public class NativeLoader {
                     filename
             };
 
-            InputStream is = null;
+            URL resource = null;
             String foundPath = null;
 
             for (String path : resourcePaths) {
                 System.err.println("[NativeLoader] Checking path: " + path);
-                is = NativeLoader.class.getResourceAsStream(path);
-                if (is != null) {
+                resource = NativeLoader.class.getResource(path);
+                if (resource != null) {
                     foundPath = path;
                     System.err.println("[NativeLoader] Found with class loader at: " + path);
                     break;
                 }
             }
 
-            if (is == null) {
+            if (resource == null) {
                 ClassLoader contextCL = Thread.currentThread().getContextClassLoader();
                 if (contextCL != null) {
                     for (String path : resourcePaths) {
                         String adjustedPath = path.startsWith("/") ? path.substring(1) : path;
                         System.err.println("[NativeLoader] Checking context CL path: " + adjustedPath);
-                        is = contextCL.getResourceAsStream(adjustedPath);
-                        if (is != null) {
+                        resource = contextCL.getResource(adjustedPath);
+                        if (resource != null) {
                             foundPath = adjustedPath;
                             System.err.println("[NativeLoader] Found with context classloader at: " + adjustedPath);
                             break;
@@ -61,24 +60,27 @@ public class NativeLoader {
                 }
             }
 
-            if (is == null) {
+            if (resource == null) {
                 String msg = "Native library not found in classpath: " + filename + " (tried: "
                         + String.join(", ", resourcePaths) + ")";
                 System.err.println("[NativeLoader] " + msg);
                 throw new FileNotFoundException(msg);
             }
 
-            Path tempPath = Files.createTempFile("jpyrust_" + libName + "_", extension);
-            tempPath.toFile().deleteOnExit();
-
+            Path libPath;
             try {
-                Files.copy(is, tempPath, StandardCopyOption.REPLACE_EXISTING);
-            } finally {
-                is.close();
+                libPath = ExtractionCache.cachedFile(resource, filename);
+            } catch (IOException e) {
+                System.err.println("[NativeLoader] Cache unavailable (" + e.getMessage() + "), using temp file");
+                libPath = Files.createTempFile("jpyrust_" + libName + "_", extension);
+                libPath.toFile().deleteOnExit();
+                try (InputStream in = resource.openStream()) {
+                    Files.copy(in, libPath, StandardCopyOption.REPLACE_EXISTING);
+                }
             }
 
-            System.err.println("[NativeLoader] Loading from temp: " + tempPath.toAbsolutePath());
-            System.load(tempPath.toAbsolutePath().toString());
+            System.err.println("[NativeLoader] Loading from: " + libPath.toAbsolutePath());
+            System.load(libPath.toAbsolutePath().toString());
             System.err.println("[NativeLoader] Successfully loaded: " + libName);
 
         } catch (Throwable e) {
@@ -97,18 +99,9 @@ public class NativeLoader {
         }
     }
 
-    public static void extractFile(String resourcePath, Path targetFile) {
+    public static boolean extractFile(String resourcePath, Path targetFile) {
         try {
-            InputStream is = NativeLoader.class.getResourceAsStream(resourcePath);
-            if (is == null) {
-                throw new FileNotFoundException("Resource not found: " + resourcePath);
-            }
-            if (targetFile.getParent() != null) {
-                Files.createDirectories(targetFile.getParent());
-            }
-            try (is) {
-                Files.copy(is, targetFile, StandardCopyOption.REPLACE_EXISTING);
-            }
+            return ExtractionCache.syncFile(ExtractionCache.resource(resourcePath), targetFile);
         } catch (IOException e) {
             throw new RuntimeException("Failed to extract resource: " + resourcePath, e);
         }
@@ -116,39 +109,7 @@ public class NativeLoader {
 
     public static Path extractZip(String resourcePath, Path targetDir) {
         try {
-            if (!Files.exists(targetDir)) {
-                Files.createDirectories(targetDir);
-            }
-
-            try (InputStream is = NativeLoader.class.getResourceAsStream(resourcePath)) {
-                if (is == null) {
-                    throw new FileNotFoundException("Resource not found: " + resourcePath);
-                }
-                try (ZipInputStream zis = new ZipInputStream(is)) {
-                    ZipEntry entry;
-                    while ((entry = zis.getNextEntry()) != null) {
-                        Path newPath = targetDir.resolve(entry.getName()).normalize();
-                        if (!newPath.startsWith(targetDir)) {
-                            throw new IOException("Zip entry is outside of the target dir: " + entry.getName());
-                        }
-
-                        if (entry.isDirectory()) {
-                            Files.createDirectories(newPath);
-                        } else {
-                            if (newPath.getParent() != null) {
-                                Files.createDirectories(newPath.getParent());
-                            }
-                            try (OutputStream os = Files.newOutputStream(newPath)) {
-                                byte[] buffer = new byte[1024];
-                                int len;
-                                while ((len = zis.read(buffer)) > 0) {
-                                    os.write(buffer, 0, len);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+            ExtractionCache.syncZip(ExtractionCache.resource(resourcePath), targetDir);
             return targetDir;
         } catch (IOException e) {
             throw new RuntimeException("Failed to extract ZIP resource: " + resourcePath, e);
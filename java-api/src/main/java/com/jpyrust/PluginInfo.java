@@ -0,0 +1,87 @@
+package com.jpyrust;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class PluginInfo {
+
+    private final String taskType;
+    private final boolean pure;
+    private final boolean threadSafe;
+    private final boolean batchable;
+    private final String cost;
+    private final String inputType;
+    private final String outputType;
+
+    PluginInfo(String taskType, boolean pure, boolean threadSafe, boolean batchable, String cost,
+            String inputType, String outputType) {
+        this.taskType = taskType;
+        this.pure = pure;
+        this.threadSafe = threadSafe;
+        this.batchable = batchable;
+        this.cost = cost;
+        this.inputType = inputType;
+        this.outputType = outputType;
+    }
+
+    // One line per plugin: "TASK key=value ...", as answered by the worker's PLUGINS task.
+    static Map<String, PluginInfo> parseManifest(String manifest) {
+        Map<String, PluginInfo> plugins = new LinkedHashMap<>();
+        for (String line : manifest.split("\n")) {
+            String[] parts = line.trim().split("\\s+");
+            if (parts[0].isEmpty()) {
+                continue;
+            }
+            Map<String, String> fields = new LinkedHashMap<>();
+            for (int i = 1; i < parts.length; i++) {
+                int eq = parts[i].indexOf('=');
+                if (eq > 0) {
+                    fields.put(parts[i].substring(0, eq), parts[i].substring(eq + 1));
+                }
+            }
+            plugins.put(parts[0], new PluginInfo(parts[0],
+                    "1".equals(fields.get("pure")),
+                    "1".equals(fields.get("thread_safe")),
+                    "1".equals(fields.get("batch")),
+                    fields.getOrDefault("cost", "heavy"),
+                    fields.getOrDefault("input", "bytes"),
+                    fields.getOrDefault("output", "bytes")));
+        }
+        return Collections.unmodifiableMap(plugins);
+    }
+
+    public String getTaskType() {
+        return taskType;
+    }
+
+    public boolean isPure() {
+        return pure;
+    }
+
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
+    public boolean isBatchable() {
+        return batchable;
+    }
+
+    public String getCost() {
+        return cost;
+    }
+
+    public String getInputType() {
+        return inputType;
+    }
+
+    public String getOutputType() {
+        return outputType;
+    }
+
+    @Override
+    public String toString() {
+        return taskType + " pure=" + pure + " threadSafe=" + threadSafe + " batchable=" + batchable
+                + " cost=" + cost + " input=" + inputType + " output=" + outputType;
+    }
+}
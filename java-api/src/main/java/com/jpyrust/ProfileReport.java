@@ -0,0 +1,172 @@
+package com.jpyrust;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public final class ProfileReport {
+
+    public static final class FunctionTiming {
+        private final String name;
+        private final double selfMillis;
+        private final double totalMillis;
+
+        FunctionTiming(String name, double selfMillis, double totalMillis) {
+            this.name = name;
+            this.selfMillis = selfMillis;
+            this.totalMillis = totalMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getSelfMillis() {
+            return selfMillis;
+        }
+
+        public double getTotalMillis() {
+            return totalMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%10.1f %10.1f  %s", selfMillis, totalMillis, name);
+        }
+    }
+
+    private final Map<String, Long> stacks;
+    private final double intervalMillis;
+    private final int workers;
+    private final long requests;
+    private final long keptRequests;
+    private final boolean active;
+
+    private ProfileReport(Map<String, Long> stacks, double intervalMillis, int workers, long requests,
+            long keptRequests, boolean active) {
+        this.stacks = stacks;
+        this.intervalMillis = intervalMillis;
+        this.workers = workers;
+        this.requests = requests;
+        this.keptRequests = keptRequests;
+        this.active = active;
+    }
+
+    // The gathered answers of every worker's PROFILE DUMP, each a u32 length + folded text whose
+    // first line is "# interval_ms=.. requests=.. kept=.. active=..". Stacks are merged by name.
+    static ProfileReport parse(byte[] gathered) {
+        ByteBuffer buffer = ByteBuffer.wrap(gathered).order(ByteOrder.LITTLE_ENDIAN);
+        Map<String, Long> stacks = new LinkedHashMap<>();
+        double interval = 0;
+        int workers = 0;
+        long requests = 0;
+        long kept = 0;
+        boolean active = false;
+        while (buffer.remaining() >= 4) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalArgumentException("Truncated profile from worker " + workers);
+            }
+            String text = new String(gathered, buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            workers++;
+            for (String line : text.split("\n")) {
+                if (line.startsWith("#")) {
+                    for (String field : line.substring(1).trim().split("\\s+")) {
+                        int eq = field.indexOf('=');
+                        if (eq < 0) {
+                            continue;
+                        }
+                        String value = field.substring(eq + 1);
+                        switch (field.substring(0, eq)) {
+                            case "interval_ms":
+                                interval = Double.parseDouble(value);
+                                break;
+                            case "requests":
+                                requests += Long.parseLong(value);
+                                break;
+                            case "kept":
+                                kept += Long.parseLong(value);
+                                break;
+                            case "active":
+                                active |= "1".equals(value);
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                    continue;
+                }
+                int space = line.lastIndexOf(' ');
+                if (space > 0) {
+                    stacks.merge(line.substring(0, space), Long.parseLong(line.substring(space + 1)), Long::sum);
+                }
+            }
+        }
+        return new ProfileReport(Collections.unmodifiableMap(stacks), interval, workers, requests, kept, active);
+    }
+
+    public Map<String, Long> getStacks() {
+        return stacks;
+    }
+
+    public double getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getKeptRequests() {
+        return keptRequests;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public long getSamples() {
+        return stacks.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // Input for flamegraph.pl, speedscope and similar tools.
+    public String toFolded() {
+        StringBuilder sb = new StringBuilder();
+        stacks.forEach((stack, count) -> sb.append(stack).append(' ').append(count).append('\n'));
+        return sb.toString();
+    }
+
+    // Self time counts samples where the function was on top of the stack, total time those
+    // where it was anywhere on it (once per sample, so recursion is not counted twice).
+    public List<FunctionTiming> getFunctions() {
+        Map<String, long[]> counts = new LinkedHashMap<>();
+        stacks.forEach((stack, count) -> {
+            String[] frames = stack.split(";");
+            Set<String> seen = new HashSet<>();
+            for (String frame : frames) {
+                if (seen.add(frame)) {
+                    counts.computeIfAbsent(frame, k -> new long[2])[1] += count;
+                }
+            }
+            counts.get(frames[frames.length - 1])[0] += count;
+        });
+        List<FunctionTiming> functions = new ArrayList<>();
+        counts.forEach((name, c) -> functions.add(
+                new FunctionTiming(name, c[0] * intervalMillis, c[1] * intervalMillis)));
+        functions.sort((a, b) -> Double.compare(b.selfMillis, a.selfMillis));
+        return functions;
+    }
+}
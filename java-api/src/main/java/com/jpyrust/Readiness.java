@@ -0,0 +1,8 @@
+package com.jpyrust;
+
+public enum Readiness {
+    NOT_STARTED,
+    STARTING,
+    READY,
+    FAILED
+}
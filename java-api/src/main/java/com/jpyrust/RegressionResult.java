@@ -0,0 +1,46 @@
+package com.jpyrust;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public final class RegressionResult {
+
+    private final double slope;
+    private final double intercept;
+    private final long count;
+
+    RegressionResult(double slope, double intercept, long count) {
+        this.slope = slope;
+        this.intercept = intercept;
+        this.count = count;
+    }
+
+    static RegressionResult decode(byte[] result) {
+        if (result == null || result.length < 24) {
+            throw new RuntimeException("Regression failed: native execution returned no result");
+        }
+        ByteBuffer buf = ByteBuffer.wrap(result).order(ByteOrder.LITTLE_ENDIAN);
+        return new RegressionResult(buf.getDouble(), buf.getDouble(), buf.getLong());
+    }
+
+    public double slope() {
+        return slope;
+    }
+
+    public double intercept() {
+        return intercept;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double predict(double x) {
+        return slope * x + intercept;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.ROOT, "Slope: %.4f, Intercept: %.4f", slope, intercept);
+    }
+}
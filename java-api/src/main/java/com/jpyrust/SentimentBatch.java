@@ -0,0 +1,56 @@
+package com.jpyrust;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public final class SentimentBatch {
+
+    public static final byte NEGATIVE = 0;
+    public static final byte NEUTRAL = 1;
+    public static final byte POSITIVE = 2;
+
+    private static final String[] LABELS = { "NEGATIVE", "NEUTRAL", "POSITIVE" };
+
+    private final float[] polarities;
+    private final byte[] labels;
+
+    SentimentBatch(float[] polarities, byte[] labels) {
+        this.polarities = polarities;
+        this.labels = labels;
+    }
+
+    static SentimentBatch decode(byte[] result, int expected) {
+        ByteBuffer buf = ByteBuffer.wrap(result).order(ByteOrder.LITTLE_ENDIAN);
+        int count = buf.getInt();
+        if (count != expected || result.length < 4 + count * 5) {
+            throw new IllegalStateException(
+                    "NLP batch result size mismatch: expected " + expected + " results, got " + count);
+        }
+        float[] polarities = new float[count];
+        buf.asFloatBuffer().get(polarities);
+        byte[] labels = new byte[count];
+        buf.position(4 + count * 4);
+        buf.get(labels);
+        return new SentimentBatch(polarities, labels);
+    }
+
+    public int size() {
+        return polarities.length;
+    }
+
+    public float polarity(int index) {
+        return polarities[index];
+    }
+
+    public byte label(int index) {
+        return labels[index];
+    }
+
+    public String labelName(int index) {
+        return LABELS[labels[index]];
+    }
+
+    public String format(int index) {
+        return String.format(java.util.Locale.ROOT, "%s (Polarity: %.2f)", labelName(index), polarities[index]);
+    }
+}
@@ -0,0 +1,77 @@
+package com.jpyrust;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+// Returns the calling thread's cached buffer, which the thread's next read overwrites, so it
+// stays package-private: the bridge hands it to the worker and is done with it before returning.
+final class StreamingInput {
+
+    private static final int MIN_CAPACITY = 64 * 1024;
+
+    // Each request thread keeps one buffer up to this size; larger uploads get their own buffer,
+    // so a single big upload does not pin that much direct memory per thread forever.
+    static final int MAX_CACHED_CAPACITY = 1024 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> BUFFERS = new ThreadLocal<>();
+
+    private StreamingInput() {
+    }
+
+    static ByteBuffer read(InputStream in, long sizeHint, long maxBytes) throws IOException {
+        long limit = Math.min(maxBytes, Integer.MAX_VALUE - 8);
+        if (sizeHint > limit) {
+            throw new PayloadTooLargeException(maxBytes);
+        }
+        ByteBuffer buffer = acquire((int) Math.min(limit, Math.max(MIN_CAPACITY, sizeHint)));
+        buffer.limit((int) Math.min(buffer.capacity(), limit));
+
+        ReadableByteChannel channel = in instanceof FileInputStream
+                ? ((FileInputStream) in).getChannel()
+                : Channels.newChannel(in);
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (buffer.limit() >= limit) {
+                    if (in.read() == -1) {
+                        break;
+                    }
+                    throw new PayloadTooLargeException(maxBytes);
+                }
+                buffer = grow(buffer, (int) Math.min(limit, (long) buffer.capacity() * 2));
+            }
+            if (channel.read(buffer) == -1) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ByteBuffer acquire(int capacity) {
+        ByteBuffer buffer = BUFFERS.get();
+        if (buffer == null || buffer.capacity() < capacity) {
+            buffer = allocate(capacity);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    private static ByteBuffer grow(ByteBuffer current, int capacity) {
+        ByteBuffer larger = allocate(capacity);
+        current.flip();
+        larger.put(current);
+        return larger;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(capacity);
+        if (capacity <= MAX_CACHED_CAPACITY) {
+            BUFFERS.set(buffer);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,275 @@
+package com.jpyrust;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Table {
+
+    public static final byte FLOAT64 = 1;
+    public static final byte FLOAT32 = 2;
+    public static final byte INT64 = 3;
+    public static final byte INT32 = 4;
+
+    private static final int HEADER_SIZE = 16;
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final String[] names;
+    private final byte[] types;
+    private final int[] offsets;
+
+    private Table(ByteBuffer buffer, int rows, String[] names, byte[] types, int[] offsets) {
+        this.buffer = buffer;
+        this.rows = rows;
+        this.names = names;
+        this.types = types;
+        this.offsets = offsets;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static Table wrap(byte[] data) {
+        return wrap(ByteBuffer.wrap(data));
+    }
+
+    public static Table wrap(ByteBuffer data) {
+        ByteBuffer buf = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.remaining() < HEADER_SIZE) {
+            throw new IllegalArgumentException("Table too short: " + buf.remaining() + " bytes");
+        }
+        long rows = buf.getLong(0);
+        int count = buf.getInt(8);
+        int offset = buf.getInt(12);
+        if (rows < 0 || rows > Integer.MAX_VALUE || count < 0 || offset < HEADER_SIZE || offset > buf.remaining()) {
+            throw new IllegalArgumentException("Malformed table: rows=" + rows + ", columns=" + count);
+        }
+        String[] names = new String[count];
+        byte[] types = new byte[count];
+        int[] offsets = new int[count];
+        int pos = HEADER_SIZE;
+        for (int i = 0; i < count; i++) {
+            if (pos + 3 > offset) {
+                throw new IllegalArgumentException("Malformed table: column header " + i + " overruns data");
+            }
+            types[i] = buf.get(pos);
+            int len = Short.toUnsignedInt(buf.getShort(pos + 1));
+            byte[] name = new byte[len];
+            buf.get(pos + 3, name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            pos += 3 + len;
+            offsets[i] = offset;
+            offset += padded(rows * width(types[i]));
+            if (offset > buf.remaining()) {
+                throw new IllegalArgumentException("Malformed table: column " + names[i] + " overruns buffer");
+            }
+        }
+        return new Table(buf, (int) rows, names, types, offsets);
+    }
+
+    public int rowCount() {
+        return rows;
+    }
+
+    public int columnCount() {
+        return names.length;
+    }
+
+    public String name(int column) {
+        return names[column];
+    }
+
+    public byte type(int column) {
+        return types[column];
+    }
+
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public double getDouble(int column, int row) {
+        int at = cell(column, row);
+        switch (types[column]) {
+            case FLOAT64:
+                return buffer.getDouble(at);
+            case FLOAT32:
+                return buffer.getFloat(at);
+            case INT64:
+                return buffer.getLong(at);
+            default:
+                return buffer.getInt(at);
+        }
+    }
+
+    public long getLong(int column, int row) {
+        int at = cell(column, row);
+        switch (types[column]) {
+            case INT64:
+                return buffer.getLong(at);
+            case INT32:
+                return buffer.getInt(at);
+            default:
+                throw new IllegalStateException("Column " + names[column] + " is not an integer column");
+        }
+    }
+
+    public DoubleBuffer doubles(int column) {
+        return view(column, FLOAT64).asDoubleBuffer();
+    }
+
+    public FloatBuffer floats(int column) {
+        return view(column, FLOAT32).asFloatBuffer();
+    }
+
+    public LongBuffer longs(int column) {
+        return view(column, INT64).asLongBuffer();
+    }
+
+    public IntBuffer ints(int column) {
+        return view(column, INT32).asIntBuffer();
+    }
+
+    ByteBuffer buffer() {
+        return buffer.duplicate().clear();
+    }
+
+    private ByteBuffer view(int column, byte expected) {
+        if (types[column] != expected) {
+            throw new IllegalStateException("Column " + names[column] + " has type " + types[column]);
+        }
+        ByteBuffer dup = buffer.duplicate();
+        dup.position(offsets[column]).limit(offsets[column] + rows * width(expected));
+        return dup.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private int cell(int column, int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range [0, " + rows + ")");
+        }
+        return offsets[column] + row * width(types[column]);
+    }
+
+    static int width(byte type) {
+        switch (type) {
+            case FLOAT64:
+            case INT64:
+                return 8;
+            case FLOAT32:
+            case INT32:
+                return 4;
+            default:
+                throw new IllegalArgumentException("Unknown column type: " + type);
+        }
+    }
+
+    private static int padded(long bytes) {
+        return (int) ((bytes + 7) & ~7L);
+    }
+
+    public static final class Builder {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Object> columns = new ArrayList<>();
+        private int rows = -1;
+
+        private Builder() {
+        }
+
+        public Builder column(String name, double[] values) {
+            return add(name, values, values.length);
+        }
+
+        public Builder column(String name, float[] values) {
+            return add(name, values, values.length);
+        }
+
+        public Builder column(String name, long[] values) {
+            return add(name, values, values.length);
+        }
+
+        public Builder column(String name, int[] values) {
+            return add(name, values, values.length);
+        }
+
+        private Builder add(String name, Object values, int length) {
+            if (rows >= 0 && length != rows) {
+                throw new IllegalArgumentException(
+                        "Column " + name + " has " + length + " rows, expected " + rows);
+            }
+            if (name.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+                throw new IllegalArgumentException("Column name too long: " + name.length() + " chars");
+            }
+            rows = length;
+            names.add(name);
+            columns.add(values);
+            return this;
+        }
+
+        public Table build() {
+            int count = names.size();
+            int rowCount = Math.max(rows, 0);
+            byte[][] encodedNames = new byte[count][];
+            byte[] types = new byte[count];
+            int header = HEADER_SIZE;
+            long data = 0;
+            for (int i = 0; i < count; i++) {
+                encodedNames[i] = names.get(i).getBytes(StandardCharsets.UTF_8);
+                types[i] = typeOf(columns.get(i));
+                header += 3 + encodedNames[i].length;
+                data += padded((long) rowCount * width(types[i]));
+            }
+            int offset = padded(header);
+            if (offset + data > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Table too large: " + (offset + data) + " bytes");
+            }
+            ByteBuffer buf = ByteBuffer.allocateDirect((int) (offset + data)).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putLong(rowCount).putInt(count).putInt(offset);
+            for (int i = 0; i < count; i++) {
+                buf.put(types[i]).putShort((short) encodedNames[i].length).put(encodedNames[i]);
+            }
+            int[] offsets = new int[count];
+            int at = offset;
+            for (int i = 0; i < count; i++) {
+                offsets[i] = at;
+                buf.position(at);
+                Object values = columns.get(i);
+                if (values instanceof double[]) {
+                    buf.asDoubleBuffer().put((double[]) values);
+                } else if (values instanceof float[]) {
+                    buf.asFloatBuffer().put((float[]) values);
+                } else if (values instanceof long[]) {
+                    buf.asLongBuffer().put((long[]) values);
+                } else {
+                    buf.asIntBuffer().put((int[]) values);
+                }
+                at += padded((long) rowCount * width(types[i]));
+            }
+            buf.clear();
+            return new Table(buf, rowCount, names.toArray(new String[0]), types, offsets);
+        }
+
+        private static byte typeOf(Object values) {
+            if (values instanceof double[]) {
+                return FLOAT64;
+            } else if (values instanceof float[]) {
+                return FLOAT32;
+            } else if (values instanceof long[]) {
+                return INT64;
+            }
+            return INT32;
+        }
+    }
+}
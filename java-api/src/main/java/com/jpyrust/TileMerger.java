@@ -0,0 +1,111 @@
+package com.jpyrust;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+final class TileMerger {
+
+    private TileMerger() {
+    }
+
+    static DetectionResult merge(List<DetectionResult> parts, float iouThreshold) {
+        int total = 0;
+        for (DetectionResult part : parts) {
+            total += part.count();
+        }
+        float[] boxes = new float[total * 4];
+        float[] scores = new float[total];
+        int[] classIds = new int[total];
+        Map<Integer, String> labels = new TreeMap<>();
+
+        int n = 0;
+        for (DetectionResult part : parts) {
+            for (int i = 0; i < part.count(); i++, n++) {
+                boxes[n * 4] = part.x(i);
+                boxes[n * 4 + 1] = part.y(i);
+                boxes[n * 4 + 2] = part.width(i);
+                boxes[n * 4 + 3] = part.height(i);
+                scores[n] = part.score(i);
+                classIds[n] = part.classId(i);
+                labels.putIfAbsent(classIds[n], part.label(i));
+            }
+        }
+
+        int[] keep = nms(boxes, scores, classIds, iouThreshold);
+        return DetectionResult.wrap(pack(keep, boxes, scores, classIds, labels));
+    }
+
+    // Greedy per-class NMS: tiles overlap, so an object on a seam is found by two or four
+    // tiles and only the highest-scoring box should survive.
+    static int[] nms(float[] boxes, float[] scores, int[] classIds, float iouThreshold) {
+        Integer[] order = new Integer[scores.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+
+        boolean[] suppressed = new boolean[scores.length];
+        List<Integer> keep = new ArrayList<>();
+        for (int a = 0; a < order.length; a++) {
+            int i = order[a];
+            if (suppressed[i]) {
+                continue;
+            }
+            keep.add(i);
+            for (int b = a + 1; b < order.length; b++) {
+                int j = order[b];
+                if (!suppressed[j] && classIds[j] == classIds[i] && iou(boxes, i, j) > iouThreshold) {
+                    suppressed[j] = true;
+                }
+            }
+        }
+        return keep.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static float iou(float[] boxes, int i, int j) {
+        float ax = boxes[i * 4], ay = boxes[i * 4 + 1], aw = boxes[i * 4 + 2], ah = boxes[i * 4 + 3];
+        float bx = boxes[j * 4], by = boxes[j * 4 + 1], bw = boxes[j * 4 + 2], bh = boxes[j * 4 + 3];
+        float iw = Math.min(ax + aw, bx + bw) - Math.max(ax, bx);
+        float ih = Math.min(ay + ah, by + bh) - Math.max(ay, by);
+        if (iw <= 0 || ih <= 0) {
+            return 0f;
+        }
+        float inter = iw * ih;
+        return inter / (aw * ah + bw * bh - inter);
+    }
+
+    private static byte[] pack(int[] keep, float[] boxes, float[] scores, int[] classIds, Map<Integer, String> labels) {
+        List<byte[]> names = new ArrayList<>();
+        int tableSize = 0;
+        for (String label : labels.values()) {
+            byte[] name = label.getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            tableSize += 6 + name.length;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(8 + keep.length * 24 + tableSize).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(keep.length).putInt(labels.size());
+        for (int i : keep) {
+            buf.putFloat(boxes[i * 4]).putFloat(boxes[i * 4 + 1]).putFloat(boxes[i * 4 + 2]).putFloat(boxes[i * 4 + 3]);
+        }
+        for (int i : keep) {
+            buf.putFloat(scores[i]);
+        }
+        for (int i : keep) {
+            buf.putInt(classIds[i]);
+        }
+        int k = 0;
+        for (Integer id : labels.keySet()) {
+            byte[] name = names.get(k++);
+            buf.putInt(id).putShort((short) name.length).put(name);
+        }
+        return buf.array();
+    }
+}
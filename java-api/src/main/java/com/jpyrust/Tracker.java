@@ -0,0 +1,46 @@
+package com.jpyrust;
+
+public final class Tracker {
+
+    public static final int DEFAULT_DETECT_EVERY = 1;
+    public static final int DEFAULT_MAX_AGE = 30;
+
+    private final String streamId;
+    private final int detectEvery;
+    private final int maxAge;
+
+    public Tracker(String streamId) {
+        this(streamId, DEFAULT_DETECT_EVERY, DEFAULT_MAX_AGE);
+    }
+
+    public Tracker(String streamId, int detectEvery, int maxAge) {
+        if (streamId == null || streamId.isEmpty() || streamId.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException("streamId must be non-empty without whitespace: " + streamId);
+        }
+        if (detectEvery < 1) {
+            throw new IllegalArgumentException("detectEvery must be >= 1: " + detectEvery);
+        }
+        if (maxAge < 1) {
+            throw new IllegalArgumentException("maxAge must be >= 1: " + maxAge);
+        }
+        this.streamId = streamId;
+        this.detectEvery = detectEvery;
+        this.maxAge = maxAge;
+    }
+
+    public String getStreamId() {
+        return streamId;
+    }
+
+    public int getDetectEvery() {
+        return detectEvery;
+    }
+
+    public int getMaxAge() {
+        return maxAge;
+    }
+
+    String flags() {
+        return "TRACK " + streamId + " " + detectEvery + " " + maxAge;
+    }
+}
@@ -0,0 +1,127 @@
+package com.jpyrust;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Append-only capture of sampled requests: an 8-byte magic once, then per request
+// i64 arrival (epoch micros), u16 task, u16 pin key, i32 metadata, i32 payload, each
+// length-prefixed and little-endian. Request ids are not kept; replay makes new ones.
+final class TrafficRecorder implements AutoCloseable {
+
+    static final byte[] MAGIC = "JPYRCAP1".getBytes(StandardCharsets.US_ASCII);
+
+    static final class Entry {
+        final long arrivalMicros;
+        final String taskType;
+        final String pinKey;
+        final String metadata;
+        final byte[] payload;
+
+        Entry(long arrivalMicros, String taskType, String pinKey, String metadata, byte[] payload) {
+            this.arrivalMicros = arrivalMicros;
+            this.taskType = taskType;
+            this.pinKey = pinKey;
+            this.metadata = metadata;
+            this.payload = payload;
+        }
+    }
+
+    private final FileChannel channel;
+    private final double sampleRate;
+    private final long epochMicros = System.currentTimeMillis() * 1000L;
+    private final long startNanos = System.nanoTime();
+
+    TrafficRecorder(Path file, double sampleRate) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.sampleRate = sampleRate;
+        if (channel.size() == 0) {
+            channel.write(ByteBuffer.wrap(MAGIC));
+        }
+    }
+
+    void record(String taskType, String pinKey, String metadata, ByteBuffer data, int length) throws IOException {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        long arrival = epochMicros + (System.nanoTime() - startNanos) / 1000L;
+        byte[] task = taskType.getBytes(StandardCharsets.UTF_8);
+        byte[] pin = pinKey == null ? new byte[0] : pinKey.getBytes(StandardCharsets.UTF_8);
+        byte[] meta = metadata.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(24 + task.length + pin.length + meta.length + length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        record.putLong(arrival)
+                .putShort((short) task.length).put(task)
+                .putShort((short) pin.length).put(pin)
+                .putInt(meta.length).put(meta)
+                .putInt(length);
+        ByteBuffer payload = data.duplicate();
+        payload.position(0).limit(length);
+        record.put(payload).flip();
+        synchronized (channel) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static List<Entry> read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file));
+                DataInputStream in = new DataInputStream(raw)) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a traffic capture: " + file);
+            }
+            // A record cut short by a crash mid-append ends the capture.
+            while (true) {
+                try {
+                    long arrival = Long.reverseBytes(in.readLong());
+                    String task = text(in, Short.toUnsignedInt(Short.reverseBytes(in.readShort())));
+                    String pin = text(in, Short.toUnsignedInt(Short.reverseBytes(in.readShort())));
+                    String metadata = text(in, Integer.reverseBytes(in.readInt()));
+                    byte[] payload = readBlock(in, Integer.reverseBytes(in.readInt()));
+                    entries.add(new Entry(arrival, task, pin.isEmpty() ? null : pin, metadata, payload));
+                } catch (EOFException e) {
+                    return entries;
+                }
+            }
+        }
+    }
+
+    private static String text(DataInputStream in, int length) throws IOException {
+        return new String(readBlock(in, length), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBlock(DataInputStream in, int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Corrupt traffic capture: negative length " + length);
+        }
+        byte[] block = new byte[length];
+        in.readFully(block);
+        return block;
+    }
+}
@@ -0,0 +1,153 @@
+package com.jpyrust;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Re-issues a capture written by BridgeConfig.recordTraffic against a bridge from
+// `concurrency` callers. With a speed > 0 requests are released on the captured schedule
+// (divided by the speed) whatever the bridge's progress, and latency is measured from that
+// schedule, so it includes the queueing real traffic would see; speed 0 sends as fast as
+// the callers can.
+public final class TrafficReplay {
+
+    public static final class Report {
+        private final Map<String, long[]> latencies;
+        private final int errors;
+        private final long elapsedNanos;
+
+        private Report(Map<String, long[]> latencies, int errors, long elapsedNanos) {
+            this.latencies = latencies;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int count() {
+            return latencies.values().stream().mapToInt(l -> l.length).sum();
+        }
+
+        public int errors() {
+            return errors;
+        }
+
+        public double throughput() {
+            return count() / Math.max(1e-9, elapsedNanos / 1e9);
+        }
+
+        public double latencyMillis(String taskType, double percentile) {
+            long[] sorted = taskType == null ? all() : latencies.getOrDefault(taskType, new long[0]);
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank))] / 1e6;
+        }
+
+        private long[] all() {
+            long[] merged = latencies.values().stream().flatMapToLong(Arrays::stream).toArray();
+            Arrays.sort(merged);
+            return merged;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                    "%d requests, %d errors, %.1f req/s%n%-16s %8s %9s %9s %9s %9s%n", count(), errors, throughput(),
+                    "task", "count", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+            for (Map.Entry<String, long[]> e : latencies.entrySet()) {
+                sb.append(row(e.getKey(), e.getKey(), e.getValue().length));
+            }
+            return sb.append(row("all", null, count())).toString();
+        }
+
+        private String row(String label, String task, int count) {
+            return String.format(Locale.ROOT, "%-16s %8d %9.1f %9.1f %9.1f %9.1f%n", label, count,
+                    latencyMillis(task, 50), latencyMillis(task, 90), latencyMillis(task, 99),
+                    latencyMillis(task, 100));
+        }
+    }
+
+    private TrafficReplay() {
+    }
+
+    public static Report replay(JPyRustBridge bridge, Path capture, double speed, int concurrency)
+            throws IOException, InterruptedException {
+        if (speed < 0) {
+            throw new IllegalArgumentException("speed must be >= 0: " + speed);
+        }
+        List<TrafficRecorder.Entry> entries = TrafficRecorder.read(capture);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, concurrency));
+        List<Future<Long>> calls = new ArrayList<>(entries.size());
+        long start = System.nanoTime();
+        try {
+            long first = entries.isEmpty() ? 0 : entries.get(0).arrivalMicros;
+            for (TrafficRecorder.Entry entry : entries) {
+                long due = speed > 0 ? start + (long) ((entry.arrivalMicros - first) * 1000L / speed) : start;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                long scheduled = Math.max(due, start);
+                calls.add(pool.submit(() -> send(bridge, entry, speed > 0 ? scheduled : System.nanoTime())));
+            }
+            Map<String, List<Long>> byTask = new TreeMap<>();
+            int errors = 0;
+            for (int i = 0; i < calls.size(); i++) {
+                try {
+                    byTask.computeIfAbsent(entries.get(i).taskType, k -> new ArrayList<>()).add(calls.get(i).get());
+                } catch (ExecutionException e) {
+                    errors++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            Map<String, long[]> latencies = new TreeMap<>();
+            byTask.forEach((task, values) -> {
+                long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(sorted);
+                latencies.put(task, sorted);
+            });
+            return new Report(latencies, errors, elapsed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long send(JPyRustBridge bridge, TrafficRecorder.Entry entry, long since) {
+        ByteBuffer data = ByteBuffer.allocateDirect(Math.max(1, entry.payload.length)).put(entry.payload).flip();
+        byte[] result = bridge.replay(entry.taskType, entry.metadata, data, entry.payload.length, entry.pinKey);
+        if (result == null) {
+            throw new IllegalStateException(entry.taskType + " failed: native execution returned no result");
+        }
+        return System.nanoTime() - since;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: TrafficReplay <capture> [original|max|<speed>] [concurrency] [workers]");
+            System.exit(2);
+        }
+        String rate = args.length > 1 ? args[1] : "original";
+        double speed = "max".equals(rate) ? 0 : "original".equals(rate) ? 1 : Double.parseDouble(rate);
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        JPyRustBridge bridge = new JPyRustBridge("replay", new BridgeConfig().workers(workers));
+        bridge.initialize();
+        try {
+            System.out.print(replay(bridge, Paths.get(args[0]), speed, concurrency));
+        } finally {
+            bridge.close();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.jpyrust;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+final class WorkerPlacement {
+
+    private static final Path SYS_CPU_ONLINE = Paths.get("/sys/devices/system/cpu/online");
+    private static final Path SYS_NODES = Paths.get("/sys/devices/system/node");
+
+    private WorkerPlacement() {
+    }
+
+    static List<int[]> plan(int workers, String cpuSet, boolean numaAware) {
+        int[] cpus;
+        if (cpuSet != null && !cpuSet.isBlank()) {
+            cpus = parse(cpuSet);
+        } else if (numaAware) {
+            cpus = readCpuList(SYS_CPU_ONLINE);
+        } else {
+            return Collections.emptyList();
+        }
+        if (cpus.length == 0) {
+            return Collections.emptyList();
+        }
+        List<int[]> nodes = numaAware ? readNumaNodes() : Collections.emptyList();
+        return plan(workers, cpus, nodes);
+    }
+
+    static List<int[]> plan(int workers, int[] cpus, List<int[]> numaNodes) {
+        List<int[]> groups = new ArrayList<>();
+        for (int[] node : numaNodes) {
+            int[] allowed = intersect(node, cpus);
+            if (allowed.length > 0) {
+                groups.add(allowed);
+            }
+        }
+        if (groups.isEmpty()) {
+            groups.add(cpus);
+        }
+
+        int[] workersPerGroup = new int[groups.size()];
+        for (int i = 0; i < workers; i++) {
+            workersPerGroup[i % groups.size()]++;
+        }
+
+        List<int[]> placement = new ArrayList<>(workers);
+        int[] assigned = new int[groups.size()];
+        for (int i = 0; i < workers; i++) {
+            int g = i % groups.size();
+            placement.add(slice(groups.get(g), workersPerGroup[g], assigned[g]++));
+        }
+        return placement;
+    }
+
+    private static int[] slice(int[] cpus, int parts, int index) {
+        if (parts >= cpus.length) {
+            return new int[] { cpus[index % cpus.length] };
+        }
+        int base = cpus.length / parts;
+        int extra = cpus.length % parts;
+        int start = index * base + Math.min(index, extra);
+        int len = base + (index < extra ? 1 : 0);
+        return Arrays.copyOfRange(cpus, start, start + len);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        TreeSet<Integer> set = new TreeSet<>();
+        for (int v : b) {
+            set.add(v);
+        }
+        return Arrays.stream(a).filter(set::contains).sorted().toArray();
+    }
+
+    static int[] parse(String cpuList) {
+        TreeSet<Integer> cpus = new TreeSet<>();
+        for (String part : cpuList.trim().split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            int dash = part.indexOf('-');
+            try {
+                if (dash < 0) {
+                    cpus.add(Integer.parseInt(part));
+                } else {
+                    int from = Integer.parseInt(part.substring(0, dash).trim());
+                    int to = Integer.parseInt(part.substring(dash + 1).trim());
+                    for (int c = from; c <= to; c++) {
+                        cpus.add(c);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CPU list: " + cpuList, e);
+            }
+        }
+        return cpus.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static String format(int[] cpus) {
+        StringBuilder sb = new StringBuilder();
+        for (int cpu : cpus) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(cpu);
+        }
+        return sb.toString();
+    }
+
+    private static int[] readCpuList(Path file) {
+        try {
+            return parse(Files.readString(file));
+        } catch (IOException | IllegalArgumentException e) {
+            return new int[0];
+        }
+    }
+
+    private static List<int[]> readNumaNodes() {
+        TreeMap<Integer, int[]> nodes = new TreeMap<>();
+        if (!Files.isDirectory(SYS_NODES)) {
+            return Collections.emptyList();
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(SYS_NODES, "node[0-9]*")) {
+            for (Path node : stream) {
+                int id = Integer.parseInt(node.getFileName().toString().substring(4));
+                int[] cpus = readCpuList(node.resolve("cpulist"));
+                if (cpus.length > 0) {
+                    nodes.put(id, cpus);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(nodes.values());
+    }
+}
@@ -0,0 +1,54 @@
+package com.jpyrust;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// One set of workers per pool name and JVM. The first bridge to join starts the pool with
+// its own config; later ones attach as clients, and the last one to leave shuts it down.
+final class WorkerPool {
+
+    private static final Map<String, WorkerPool> POOLS = new HashMap<>();
+
+    private final String name;
+    private final JPyRustBridge owner;
+    private final FairScheduler scheduler;
+    private int clients;
+
+    private WorkerPool(String name, JPyRustBridge owner, int slots) {
+        this.name = name;
+        this.owner = owner;
+        this.scheduler = new FairScheduler(slots);
+    }
+
+    static synchronized WorkerPool join(String name, BridgeConfig config, String workDirectory, String modelPath,
+            float confidence, String memoryKey) {
+        WorkerPool pool = POOLS.get(name);
+        if (pool == null) {
+            JPyRustBridge owner = JPyRustBridge.dedicated("pool-" + name, config);
+            String poolDir = Paths.get(workDirectory).toAbsolutePath().resolveSibling("pool-" + name).toString();
+            owner.initialize(poolDir, modelPath, confidence, memoryKey);
+            pool = new WorkerPool(name, owner, config.parallelism());
+            POOLS.put(name, pool);
+        }
+        pool.clients++;
+        return pool;
+    }
+
+    static synchronized void leave(WorkerPool pool, String client) {
+        pool.scheduler.forget(client);
+        if (--pool.clients == 0) {
+            POOLS.remove(pool.name);
+            pool.owner.close();
+        }
+    }
+
+    JPyRustBridge owner() {
+        return owner;
+    }
+
+    <T> T run(String client, Supplier<T> task) {
+        return scheduler.run(client, task);
+    }
+}
@@ -0,0 +1,41 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveResolutionTest {
+
+    private static void feed(AdaptiveResolution resolution, long millis) {
+        for (int i = 0; i < AdaptiveResolution.WINDOW; i++) {
+            resolution.record(millis * 1_000_000L);
+        }
+    }
+
+    @Test
+    public void stepsDownWhileOverTargetAndBackUpWhenIdle() {
+        AdaptiveResolution resolution = new AdaptiveResolution(100);
+        assertEquals(640, resolution.current());
+
+        feed(resolution, 150);
+        assertEquals(512, resolution.current());
+        for (int i = 0; i < 5; i++) {
+            feed(resolution, 150);
+        }
+        assertEquals(320, resolution.current());
+
+        feed(resolution, 70);
+        assertEquals(320, resolution.current());
+        feed(resolution, 30);
+        assertEquals(416, resolution.current());
+    }
+
+    @Test
+    public void fewSlowOutliersDoNotTriggerStepDown() {
+        AdaptiveResolution resolution = new AdaptiveResolution(100);
+        for (int i = 0; i < AdaptiveResolution.WINDOW; i++) {
+            resolution.record((i == 0 ? 500 : 80) * 1_000_000L);
+        }
+        assertEquals(640, resolution.current());
+    }
+}
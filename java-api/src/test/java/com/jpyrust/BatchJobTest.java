@@ -0,0 +1,158 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BatchJobTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void checkpointResumesOnlyForTheSameInputList() throws Exception {
+        List<Path> inputs = List.of(Paths.get("a.jpg"), Paths.get("b.jpg"), Paths.get("c.jpg"));
+        long fingerprint = BatchJob.fingerprint(inputs);
+        Path checkpoint = dir.resolve("out.jsonl.checkpoint");
+
+        assertArrayEquals(new long[3], BatchJob.readCheckpoint(checkpoint, 3, fingerprint));
+        BatchJob.writeCheckpoint(checkpoint, 3, fingerprint, 2, 512, 1);
+        assertArrayEquals(new long[] {2, 512, 1}, BatchJob.readCheckpoint(checkpoint, 3, fingerprint));
+
+        List<Path> reordered = List.of(Paths.get("b.jpg"), Paths.get("a.jpg"), Paths.get("c.jpg"));
+        assertNotEquals(fingerprint, BatchJob.fingerprint(reordered));
+        assertThrows(IllegalStateException.class,
+                () -> BatchJob.readCheckpoint(checkpoint, 3, BatchJob.fingerprint(reordered)));
+    }
+
+    @Test
+    public void resumesAgainstStubWorkerAfterTruncatedTail() throws Exception {
+        Path images = Files.createDirectories(dir.resolve("images"));
+        for (int i = 0; i < 7; i++) {
+            Files.write(images.resolve("frame" + i + ".jpg"), ("image " + i).getBytes(StandardCharsets.US_ASCII));
+        }
+        Path expected = dir.resolve("expected.jsonl");
+        Path output = dir.resolve("out.jsonl");
+
+        try (StubWorker worker = StubWorker.start()) {
+            // A budget below one batch forces every batch to wait until the previous one is detected.
+            BatchJob.Progress reference = new BatchJob(worker, () -> 2).inputDirectory(images).output(expected)
+                    .batchSize(2).maxBufferedBytes(1).run();
+            assertEquals(7, reference.getCompleted());
+            assertEquals(0, reference.getFailed());
+
+            // The batch holding frame2 fails, so the first run stops after committing frame0..1.
+            Function<ByteBuffer, byte[]> failing = packed -> {
+                if (StandardCharsets.US_ASCII.decode(packed.duplicate()).toString().contains("image 2")) {
+                    throw new IllegalStateException("worker died");
+                }
+                return worker.apply(packed);
+            };
+            assertThrows(RuntimeException.class,
+                    () -> new BatchJob(failing, () -> 1).inputDirectory(images).output(output).batchSize(2).run());
+            // A torn write past the checkpoint, longer than everything still to come.
+            Files.write(output, ("{\"input\":\"" + "x".repeat(8192)).getBytes(StandardCharsets.US_ASCII),
+                    StandardOpenOption.APPEND);
+
+            BatchJob.Progress resumed = new BatchJob(worker, () -> 2).inputDirectory(images).output(output)
+                    .batchSize(2).run();
+            assertEquals(7, resumed.getCompleted());
+        }
+        assertEquals(Files.readString(expected), Files.readString(output));
+        assertEquals(7, Files.readAllLines(output).size());
+    }
+
+    // ai_worker.py in stub mode, driven over its stdin/stdout protocol with inline payloads.
+    private static final class StubWorker implements Function<ByteBuffer, byte[]>, AutoCloseable {
+        private final Process process;
+        private final OutputStream in;
+        private final InputStream out;
+        private int requests;
+
+        private StubWorker(Process process) {
+            this.process = process;
+            this.in = process.getOutputStream();
+            this.out = new BufferedInputStream(process.getInputStream());
+        }
+
+        static StubWorker start() throws IOException {
+            Path script = Paths.get("..", "python-core", "ai_worker.py");
+            assumeTrue(Files.exists(script), "python-core/ai_worker.py not found");
+            Process process;
+            try {
+                process = new ProcessBuilder("python3", script.toString(), "--daemon", "--stub", "0")
+                        .redirectError(ProcessBuilder.Redirect.DISCARD).start();
+            } catch (IOException e) {
+                assumeTrue(false, "python3 is not available");
+                throw e;
+            }
+            StubWorker worker = new StubWorker(process);
+            String line = worker.readLine();
+            while (line != null && !line.equals("READY")) {
+                line = worker.readLine();
+            }
+            if (line == null) {
+                worker.close();
+                assumeTrue(false, "stub worker did not start (numpy/opencv missing?)");
+            }
+            return worker;
+        }
+
+        @Override
+        public synchronized byte[] apply(ByteBuffer packed) {
+            try {
+                byte[] payload = new byte[packed.remaining()];
+                packed.duplicate().get(payload);
+                in.write(("EXECUTE YOLO batch-" + requests++ + " INLINE " + payload.length + " 0 0 0 BINARY BATCH\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                in.write(payload);
+                in.flush();
+                String reply = readLine();
+                if (reply == null || !reply.startsWith("DONE ")) {
+                    throw new IllegalStateException("Stub worker answered: " + reply);
+                }
+                return out.readNBytes(Integer.parseInt(reply.substring(5).trim()));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = out.read()) >= 0 && b != '\n') {
+                line.write(b);
+            }
+            return b < 0 && line.size() == 0 ? null : line.toString(StandardCharsets.US_ASCII).trim();
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+                process.waitFor();
+            } catch (IOException | InterruptedException e) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class DetectionResultTest {
+
+    private static byte[] encode(float[][] boxes, float[] scores, int[] classIds, int[] labelIds, String[] labels) {
+        ByteBuffer buf = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(boxes.length);
+        buf.putInt(labels.length);
+        for (float[] box : boxes) {
+            for (float v : box) {
+                buf.putFloat(v);
+            }
+        }
+        for (float score : scores) {
+            buf.putFloat(score);
+        }
+        for (int classId : classIds) {
+            buf.putInt(classId);
+        }
+        for (int i = 0; i < labels.length; i++) {
+            byte[] name = labels[i].getBytes(StandardCharsets.UTF_8);
+            buf.putInt(labelIds[i]);
+            buf.putShort((short) name.length);
+            buf.put(name);
+        }
+        byte[] out = new byte[buf.position()];
+        buf.flip();
+        buf.get(out);
+        return out;
+    }
+
+    @Test
+    public void readsPackedDetections() {
+        byte[] data = encode(
+                new float[][] { { 1f, 2f, 30f, 40f }, { 5f, 6f, 7f, 8f } },
+                new float[] { 0.9f, 0.55f },
+                new int[] { 16, 0 },
+                new int[] { 0, 16 },
+                new String[] { "person", "dog" });
+
+        DetectionResult result = DetectionResult.wrap(data);
+
+        assertEquals(2, result.count());
+        assertEquals(1f, result.x(0));
+        assertEquals(40f, result.height(0));
+        assertEquals(7f, result.width(1));
+        assertEquals(0.55f, result.score(1));
+        assertEquals(16, result.classId(0));
+        assertEquals("dog", result.label(0));
+        assertEquals("person", result.label(1));
+    }
+
+    @Test
+    public void resetReusesInstanceForEmptyResult() {
+        DetectionResult result = DetectionResult.wrap(encode(
+                new float[][] { { 1f, 1f, 1f, 1f } }, new float[] { 0.7f }, new int[] { 2 },
+                new int[] { 2 }, new String[] { "car" }));
+
+        result.reset(ByteBuffer.wrap(encode(new float[0][], new float[0], new int[0], new int[0], new String[0])));
+
+        assertEquals(0, result.count());
+        assertThrows(IndexOutOfBoundsException.class, () -> result.score(0));
+    }
+
+    @Test
+    public void readsInputSizeAfterLabelTable() {
+        byte[] data = encode(
+                new float[][] { { 1f, 1f, 1f, 1f } }, new float[] { 0.7f }, new int[] { 2 },
+                new int[] { 2 }, new String[] { "car" });
+        ByteBuffer withSize = ByteBuffer.allocate(data.length + 4).order(ByteOrder.LITTLE_ENDIAN);
+        withSize.put(data).putInt(416);
+
+        assertEquals(416, DetectionResult.wrap(withSize.array()).inputSize());
+        assertEquals(0, DetectionResult.wrap(data).inputSize());
+    }
+
+    @Test
+    public void readsTrackIdsAfterInputSize() {
+        byte[] data = encode(
+                new float[][] { { 1f, 1f, 1f, 1f }, { 2f, 2f, 2f, 2f } }, new float[] { 0.7f, 0.4f },
+                new int[] { 2, 2 }, new int[] { 2 }, new String[] { "car" });
+        ByteBuffer tracked = ByteBuffer.allocate(data.length + 12).order(ByteOrder.LITTLE_ENDIAN);
+        tracked.put(data).putInt(640).putInt(7).putInt(12);
+
+        DetectionResult result = DetectionResult.wrap(tracked.array());
+        assertEquals(640, result.inputSize());
+        assertEquals(7, result.trackId(0));
+        assertEquals(12, result.trackId(1));
+        assertEquals(-1, result.reset(ByteBuffer.wrap(data)).trackId(1));
+    }
+
+    @Test
+    public void rejectsTruncatedBuffer() {
+        byte[] data = encode(
+                new float[][] { { 1f, 1f, 1f, 1f } }, new float[] { 0.7f }, new int[] { 2 },
+                new int[0], new String[0]);
+        byte[] truncated = java.util.Arrays.copyOf(data, data.length - 4);
+
+        assertThrows(IllegalArgumentException.class, () -> DetectionResult.wrap(truncated));
+    }
+}
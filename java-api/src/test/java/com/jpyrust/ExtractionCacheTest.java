@@ -0,0 +1,93 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ExtractionCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private static void zip(Path archive, String... namesAndContents) throws IOException {
+        try (OutputStream out = Files.newOutputStream(archive); ZipOutputStream zos = new ZipOutputStream(out)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zos.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zos.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+    }
+
+    @Test
+    public void syncFileSkipsIdenticalContent() throws Exception {
+        Path source = Files.writeString(dir.resolve("ai_worker.py"), "print('v1')");
+        Path target = dir.resolve("work/ai_worker.py");
+        URL url = source.toUri().toURL();
+
+        assertTrue(ExtractionCache.syncFile(url, target));
+        assertFalse(ExtractionCache.syncFile(url, target));
+
+        Files.writeString(source, "print('v2')");
+        assertTrue(ExtractionCache.syncFile(url, target));
+        assertEquals("print('v2')", Files.readString(target));
+    }
+
+    @Test
+    public void syncZipExtractsOnceUntilArchiveChanges() throws Exception {
+        Path archive = dir.resolve("python_dist.zip");
+        zip(archive, "python.exe", "exe", "Lib/site-packages/mod.py", "x = 1");
+        Path target = dir.resolve("python_dist");
+        URL url = archive.toUri().toURL();
+
+        assertTrue(ExtractionCache.syncZip(url, target));
+        assertEquals("x = 1", Files.readString(target.resolve("Lib/site-packages/mod.py")));
+        assertFalse(ExtractionCache.syncZip(url, target));
+
+        zip(archive, "python.exe", "exe", "Lib/site-packages/mod.py", "x = 2");
+        assertTrue(ExtractionCache.syncZip(url, target));
+        assertEquals("x = 2", Files.readString(target.resolve("Lib/site-packages/mod.py")));
+    }
+
+    @Test
+    public void syncZipRejectsEntriesOutsideTarget() throws Exception {
+        Path archive = dir.resolve("evil.zip");
+        zip(archive, "../escape.txt", "nope");
+
+        assertThrows(IOException.class, () -> ExtractionCache.syncZip(archive.toUri().toURL(), dir.resolve("out")));
+        assertFalse(Files.exists(dir.resolve("escape.txt")));
+    }
+
+    @Test
+    public void cachedFileIsContentAddressed() throws Exception {
+        System.setProperty("jpyrust.cache.dir", dir.resolve("cache").toString());
+        try {
+            Path lib = Files.write(dir.resolve("libjpyrust.so"), new byte[] { 1, 2, 3 });
+            Path first = ExtractionCache.cachedFile(lib.toUri().toURL(), "libjpyrust.so");
+            Path again = ExtractionCache.cachedFile(lib.toUri().toURL(), "libjpyrust.so");
+
+            Files.write(lib, new byte[] { 4, 5, 6, 7 });
+            Path updated = ExtractionCache.cachedFile(lib.toUri().toURL(), "libjpyrust.so");
+
+            assertEquals(first, again);
+            assertFalse(first.equals(updated));
+            assertArrayEquals(new byte[] { 1, 2, 3 }, Files.readAllBytes(first));
+        } finally {
+            System.clearProperty("jpyrust.cache.dir");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class FairSchedulerTest {
+
+    @Test
+    public void freedSlotGoesToLeastRecentlyServedClient() {
+        FairScheduler scheduler = new FairScheduler(1);
+        FairScheduler.Ticket first = scheduler.enqueue("cam1");
+        FairScheduler.Ticket backlog1 = scheduler.enqueue("cam1");
+        FairScheduler.Ticket backlog2 = scheduler.enqueue("cam1");
+        FairScheduler.Ticket other = scheduler.enqueue("cam2");
+        assertTrue(first.isGranted());
+        assertFalse(backlog1.isGranted());
+
+        scheduler.release();
+        assertTrue(other.isGranted());
+        assertFalse(backlog1.isGranted());
+
+        scheduler.release();
+        assertTrue(backlog1.isGranted());
+        assertFalse(backlog2.isGranted());
+    }
+
+    @Test
+    public void runReleasesItsSlotEvenWhenTheTaskThrows() {
+        FairScheduler scheduler = new FairScheduler(1);
+        assertThrows(IllegalStateException.class, () -> scheduler.run("cam1", () -> {
+            throw new IllegalStateException("worker failed");
+        }));
+        assertEquals("ok", scheduler.run("cam2", () -> "ok"));
+        assertTrue(scheduler.enqueue("cam3").isGranted());
+    }
+}
@@ -0,0 +1,37 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class PluginInfoTest {
+
+    @Test
+    public void parsesManifestLinesWithDefaultsForMissingFields() {
+        Map<String, PluginInfo> plugins = PluginInfo.parseManifest(
+                "MATH_ADD pure=0 thread_safe=0 batch=0\n"
+                        + "SLUG pure=1 thread_safe=1 batch=1 cost=cheap input=text output=text\n");
+
+        assertEquals(2, plugins.size());
+        PluginInfo slug = plugins.get("SLUG");
+        assertTrue(slug.isPure());
+        assertTrue(slug.isThreadSafe());
+        assertTrue(slug.isBatchable());
+        assertEquals("cheap", slug.getCost());
+        assertEquals("text", slug.getInputType());
+
+        PluginInfo add = plugins.get("MATH_ADD");
+        assertFalse(add.isPure());
+        assertEquals("heavy", add.getCost());
+        assertEquals("bytes", add.getOutputType());
+    }
+
+    @Test
+    public void emptyManifestHasNoPlugins() {
+        assertTrue(PluginInfo.parseManifest("").isEmpty());
+    }
+}
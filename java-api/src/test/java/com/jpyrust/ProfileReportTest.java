@@ -0,0 +1,48 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ProfileReportTest {
+
+    private static byte[] gathered(String... dumps) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String dump : dumps) {
+            byte[] text = dump.getBytes(StandardCharsets.UTF_8);
+            out.writeBytes(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(text.length).array());
+            out.writeBytes(text);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void mergesWorkersAndDerivesFunctionTimings() {
+        ProfileReport report = ProfileReport.parse(gathered(
+                "# interval_ms=5 requests=10 kept=2 active=1\n"
+                        + "YOLO;handle (w.py:1);decode (w.py:9) 3\nYOLO;handle (w.py:1) 1\n",
+                "# interval_ms=5 requests=4 kept=1 active=0\nYOLO;handle (w.py:1);decode (w.py:9) 2\n"));
+
+        assertEquals(2, report.getWorkers());
+        assertEquals(14, report.getRequests());
+        assertEquals(3, report.getKeptRequests());
+        assertTrue(report.isActive());
+        assertEquals(6, report.getSamples());
+        assertEquals("YOLO;handle (w.py:1);decode (w.py:9) 5\nYOLO;handle (w.py:1) 1\n", report.toFolded());
+
+        List<ProfileReport.FunctionTiming> functions = report.getFunctions();
+        assertEquals("decode (w.py:9)", functions.get(0).getName());
+        assertEquals(25.0, functions.get(0).getSelfMillis());
+        ProfileReport.FunctionTiming handle = functions.stream()
+                .filter(f -> f.getName().equals("handle (w.py:1)")).findFirst().orElseThrow();
+        assertEquals(5.0, handle.getSelfMillis());
+        assertEquals(30.0, handle.getTotalMillis());
+    }
+}
@@ -0,0 +1,71 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+public class StreamingInputTest {
+
+    private static byte[] payload(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    @Test
+    public void readsWholeStreamIntoDirectBuffer() throws Exception {
+        byte[] data = payload(200_000);
+
+        ByteBuffer buffer = StreamingInput.read(new ByteArrayInputStream(data), -1, 1 << 20);
+
+        assertTrue(buffer.isDirect());
+        assertEquals(data.length, buffer.remaining());
+        assertEquals(data[199_999], buffer.get(199_999));
+    }
+
+    @Test
+    public void acceptsPayloadExactlyAtLimit() throws Exception {
+        ByteBuffer buffer = StreamingInput.read(new ByteArrayInputStream(payload(70_000)), 0, 70_000);
+
+        assertEquals(70_000, buffer.remaining());
+    }
+
+    @Test
+    public void rejectsOversizedStreamWithoutSizeHint() {
+        assertThrows(PayloadTooLargeException.class,
+                () -> StreamingInput.read(new ByteArrayInputStream(payload(70_001)), -1, 70_000));
+    }
+
+    @Test
+    public void rejectsOversizedSizeHintBeforeReading() {
+        assertThrows(PayloadTooLargeException.class,
+                () -> StreamingInput.read(new ByteArrayInputStream(new byte[0]), 5_000, 4_096));
+    }
+
+    @Test
+    public void reusedBufferStillEnforcesLimit() throws Exception {
+        StreamingInput.read(new ByteArrayInputStream(payload(300_000)), -1, 1 << 20);
+
+        assertThrows(PayloadTooLargeException.class,
+                () -> StreamingInput.read(new ByteArrayInputStream(payload(1_001)), -1, 1_000));
+    }
+
+    @Test
+    public void largeUploadsAreNotCachedPerThread() throws Exception {
+        int large = StreamingInput.MAX_CACHED_CAPACITY + 1;
+        ByteBuffer first = StreamingInput.read(new ByteArrayInputStream(payload(large)), large, 8 << 20);
+        assertEquals(large, first.remaining());
+
+        ByteBuffer second = StreamingInput.read(new ByteArrayInputStream(payload(1_000)), -1, 8 << 20);
+        assertNotSame(first, second);
+        assertTrue(second.capacity() <= StreamingInput.MAX_CACHED_CAPACITY);
+    }
+}
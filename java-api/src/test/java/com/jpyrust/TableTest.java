@@ -0,0 +1,52 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+public class TableTest {
+
+    private static Table roundTrip(Table table) {
+        ByteBuffer data = table.buffer();
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return Table.wrap(bytes);
+    }
+
+    @Test
+    public void columnsSurviveRoundTripAlignedToEightBytes() {
+        Table table = roundTrip(Table.builder()
+                .column("price", new double[] { 1.5, 2.5, 4.0 })
+                .column("qty", new int[] { 3, 1, 7 })
+                .column("id", new long[] { 10L, 11L, 12L })
+                .build());
+
+        assertEquals(3, table.rowCount());
+        assertEquals(3, table.columnCount());
+        assertEquals("qty", table.name(1));
+        assertEquals(Table.INT32, table.type(1));
+        assertEquals(2.5, table.doubles(table.indexOf("price")).get(1));
+        assertEquals(7, table.ints(1).get(2));
+        assertEquals(12L, table.getLong(2, 2));
+        assertEquals(7.0, table.getDouble(1, 2));
+
+        ByteBuffer raw = table.buffer().order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0, raw.getInt(12) % 8);
+    }
+
+    @Test
+    public void rejectsRaggedColumnsAndTruncatedData() {
+        assertThrows(IllegalArgumentException.class, () -> Table.builder()
+                .column("a", new double[2])
+                .column("b", new double[3]));
+
+        Table table = Table.builder().column("a", new double[4]).build();
+        ByteBuffer data = table.buffer();
+        byte[] truncated = new byte[data.remaining() - 8];
+        data.get(truncated);
+        assertThrows(IllegalArgumentException.class, () -> Table.wrap(truncated));
+    }
+}
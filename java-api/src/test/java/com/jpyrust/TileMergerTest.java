@@ -0,0 +1,58 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TileMergerTest {
+
+    private static DetectionResult detections(float[][] boxes, float[] scores, int[] classIds, String label) {
+        byte[] name = label.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(8 + boxes.length * 24 + 6 + name.length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(boxes.length).putInt(1);
+        for (float[] box : boxes) {
+            for (float v : box) {
+                buf.putFloat(v);
+            }
+        }
+        for (float score : scores) {
+            buf.putFloat(score);
+        }
+        for (int classId : classIds) {
+            buf.putInt(classId);
+        }
+        buf.putInt(classIds.length > 0 ? classIds[0] : 0).putShort((short) name.length).put(name);
+        return DetectionResult.wrap(buf.array());
+    }
+
+    @Test
+    public void seamDuplicatesCollapseToBestBox() {
+        DetectionResult left = detections(new float[][] { { 600f, 100f, 80f, 80f } }, new float[] { 0.6f },
+                new int[] { 0 }, "person");
+        DetectionResult right = detections(new float[][] { { 604f, 102f, 80f, 78f }, { 2000f, 50f, 10f, 10f } },
+                new float[] { 0.9f, 0.4f }, new int[] { 0, 0 }, "person");
+
+        DetectionResult merged = TileMerger.merge(List.of(left, right), 0.5f);
+
+        assertEquals(2, merged.count());
+        assertEquals(0.9f, merged.score(0));
+        assertEquals(604f, merged.x(0));
+        assertEquals(2000f, merged.x(1));
+        assertEquals("person", merged.label(0));
+    }
+
+    @Test
+    public void overlappingBoxesOfDifferentClassesAreKept() {
+        float[] boxes = { 0f, 0f, 10f, 10f, 1f, 1f, 10f, 10f };
+
+        int[] keep = TileMerger.nms(boxes, new float[] { 0.8f, 0.7f }, new int[] { 1, 2 }, 0.5f);
+
+        assertArrayEquals(new int[] { 0, 1 }, keep);
+    }
+}
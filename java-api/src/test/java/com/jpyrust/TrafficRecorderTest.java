@@ -0,0 +1,43 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TrafficRecorderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void readsBackRecordsAndIgnoresTruncatedTail() throws Exception {
+        Path capture = dir.resolve("capture.jprc");
+        ByteBuffer frame = ByteBuffer.allocateDirect(8).put(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        try (TrafficRecorder recorder = new TrafficRecorder(capture, 1.0)) {
+            recorder.record("YOLO", null, "2 2 2", frame, 4);
+            recorder.record("TRACK", "cam-1", "TRACK cam-1 1 30", frame, 8);
+        }
+        byte[] bytes = Files.readAllBytes(capture);
+        Files.write(capture, Arrays.copyOf(bytes, bytes.length + 5));
+
+        List<TrafficRecorder.Entry> entries = TrafficRecorder.read(capture);
+        assertEquals(2, entries.size());
+        assertEquals("YOLO", entries.get(0).taskType);
+        assertNull(entries.get(0).pinKey);
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, entries.get(0).payload);
+        assertEquals("cam-1", entries.get(1).pinKey);
+        assertEquals("TRACK cam-1 1 30", entries.get(1).metadata);
+        assertEquals(8, entries.get(1).payload.length);
+        assertTrue(entries.get(1).arrivalMicros >= entries.get(0).arrivalMicros);
+    }
+}
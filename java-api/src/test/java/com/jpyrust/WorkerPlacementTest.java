@@ -0,0 +1,61 @@
+package com.jpyrust;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class WorkerPlacementTest {
+
+    private static String fmt(int[] cpus) {
+        return WorkerPlacement.format(cpus);
+    }
+
+    @Test
+    public void parsesRangesAndSingles() {
+        assertEquals("0,1,2,3,8,10,11", fmt(WorkerPlacement.parse("0-3, 8,10-11")));
+        assertThrows(IllegalArgumentException.class, () -> WorkerPlacement.parse("0-x"));
+    }
+
+    @Test
+    public void splitsCoresEvenlyAcrossWorkers() {
+        List<int[]> plan = WorkerPlacement.plan(3, WorkerPlacement.parse("0-7"), Collections.emptyList());
+
+        assertEquals("0,1,2", fmt(plan.get(0)));
+        assertEquals("3,4,5", fmt(plan.get(1)));
+        assertEquals("6,7", fmt(plan.get(2)));
+    }
+
+    @Test
+    public void moreWorkersThanCoresShareSingleCores() {
+        List<int[]> plan = WorkerPlacement.plan(3, new int[] { 4, 5 }, Collections.emptyList());
+
+        assertEquals("4", fmt(plan.get(0)));
+        assertEquals("5", fmt(plan.get(1)));
+        assertEquals("4", fmt(plan.get(2)));
+    }
+
+    @Test
+    public void numaAwarePlacementKeepsWorkersInsideOneNode() {
+        List<int[]> nodes = Arrays.asList(WorkerPlacement.parse("0-3"), WorkerPlacement.parse("4-7"));
+
+        List<int[]> plan = WorkerPlacement.plan(4, WorkerPlacement.parse("0-7"), nodes);
+
+        assertEquals("0,1", fmt(plan.get(0)));
+        assertEquals("4,5", fmt(plan.get(1)));
+        assertEquals("2,3", fmt(plan.get(2)));
+        assertEquals("6,7", fmt(plan.get(3)));
+    }
+
+    @Test
+    public void nativeOptionsCarryPerWorkerCpusAndThreads() {
+        String options = new BridgeConfig().workers(2).cpuSet("0-3").toNativeOptions();
+
+        assertEquals("workers=2\nworker.0.cpus=0,1\nworker.0.threads=2\nworker.1.cpus=2,3\nworker.1.threads=2\n",
+                options);
+    }
+}
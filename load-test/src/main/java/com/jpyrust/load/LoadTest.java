@@ -0,0 +1,269 @@
+package com.jpyrust.load;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.imageio.ImageIO;
+
+// Closed-loop load against a running demo-web: `concurrency` virtual users each send a request,
+// wait for the answer and send the next, picking endpoints by the weights in --mix. Requests
+// finished during the warm-up period are not counted.
+public final class LoadTest {
+
+    enum Endpoint {
+        IMAGE, TEXT, PLUGIN, STATUS
+    }
+
+    private static final String BOUNDARY = "jpyrust-load-boundary";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final Map<Endpoint, Integer> mix;
+    private final byte[] imageBody;
+    private final String textBody;
+    private final String pluginTask;
+    private final String pluginBody;
+
+    private LoadTest(Map<String, String> options) throws IOException {
+        this.options = options;
+        this.baseUrl = option("url", "http://localhost:8080").replaceAll("/+$", "");
+        this.mix = parseMix(option("mix", "image=1,text=1,plugin=1,status=1"));
+        this.imageBody = multipart(loadImage(option("image", "sample.png")));
+        this.textBody = "{\"text\":\"" + "great service ".repeat(Math.max(1, intOption("text-bytes", 256) / 14))
+                + "\"}";
+        this.pluginTask = option("plugin", "SLUG");
+        this.pluginBody = "{\"args\":[\"Hello\",\"World\"]}";
+    }
+
+    private String option(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    private int intOption(String name, int fallback) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : fallback;
+    }
+
+    static Map<Endpoint, Integer> parseMix(String spec) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=", 2);
+            int weight = kv.length > 1 ? Integer.parseInt(kv[1].trim()) : 1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in mix: " + part);
+            }
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix selects no endpoint: " + spec);
+        }
+        return weights;
+    }
+
+    private static byte[] loadImage(String path) throws IOException {
+        Path file = Paths.get(path);
+        if (Files.exists(file)) {
+            return Files.readAllBytes(file);
+        }
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, (x * 255 / 640) << 16 | (y * 255 / 480) << 8 | ((x ^ y) & 0xFF));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] multipart(byte[] image) {
+        byte[] head = ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"frame.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] body = Arrays.copyOf(head, head.length + image.length + tail.length);
+        System.arraycopy(image, 0, body, head.length, image.length);
+        System.arraycopy(tail, 0, body, head.length + image.length, tail.length);
+        return body;
+    }
+
+    private Endpoint pick() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Endpoint, Integer> e : mix.entrySet()) {
+            roll -= e.getValue();
+            if (roll < 0) {
+                return e.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(60));
+        switch (endpoint) {
+            case IMAGE:
+                return builder.uri(URI.create(baseUrl + "/api/ai/process-image"))
+                        .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(imageBody)).build();
+            case TEXT:
+                return builder.uri(URI.create(baseUrl + "/api/ai/text"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(textBody)).build();
+            case PLUGIN:
+                return builder.uri(URI.create(baseUrl + "/api/plugin/" + pluginTask))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(pluginBody)).build();
+            default:
+                return builder.uri(URI.create(baseUrl + "/api/status")).GET().build();
+        }
+    }
+
+    // The plugin and status endpoints report failures inside a 200 response.
+    private static String failure(Endpoint endpoint, HttpResponse<byte[]> response) {
+        if (response.statusCode() / 100 != 2) {
+            return "HTTP " + response.statusCode();
+        }
+        if (endpoint == Endpoint.PLUGIN || endpoint == Endpoint.STATUS) {
+            String body = new String(response.body(), StandardCharsets.UTF_8);
+            if (body.contains("\"error\"") || body.contains("\"DOWN\"")) {
+                return "error in body";
+            }
+        }
+        return null;
+    }
+
+    private static final class Samples {
+        final Map<Endpoint, List<Long>> latencies = new EnumMap<>(Endpoint.class);
+        final Map<Endpoint, Integer> errors = new EnumMap<>(Endpoint.class);
+        final Map<String, Integer> causes = new HashMap<>();
+    }
+
+    private Samples user(long measureFrom, long deadline) {
+        Samples samples = new Samples();
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = pick();
+            long start = System.nanoTime();
+            String cause = null;
+            try {
+                HttpResponse<byte[]> response = client.send(request(endpoint), HttpResponse.BodyHandlers.ofByteArray());
+                cause = failure(endpoint, response);
+            } catch (IOException e) {
+                cause = e.getClass().getSimpleName();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long end = System.nanoTime();
+            if (start < measureFrom || end > deadline) {
+                continue;
+            }
+            if (cause != null) {
+                samples.errors.merge(endpoint, 1, Integer::sum);
+                samples.causes.merge(endpoint + " " + cause, 1, Integer::sum);
+            } else {
+                samples.latencies.computeIfAbsent(endpoint, k -> new ArrayList<>()).add(end - start);
+            }
+        }
+        return samples;
+    }
+
+    private String run() throws Exception {
+        int concurrency = intOption("concurrency", 16);
+        int warmupSeconds = intOption("warmup", 5);
+        int durationSeconds = intOption("duration", 30);
+        long measureFrom = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long deadline = measureFrom + durationSeconds * 1_000_000_000L;
+
+        ExecutorService users = Executors.newFixedThreadPool(concurrency);
+        List<Future<Samples>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                results.add(users.submit(() -> user(measureFrom, deadline)));
+            }
+            Samples total = new Samples();
+            for (Future<Samples> result : results) {
+                Samples s = result.get();
+                s.latencies.forEach((k, v) -> total.latencies.computeIfAbsent(k, x -> new ArrayList<>()).addAll(v));
+                s.errors.forEach((k, v) -> total.errors.merge(k, v, Integer::sum));
+                s.causes.forEach((k, v) -> total.causes.merge(k, v, Integer::sum));
+            }
+            return report(total, concurrency, durationSeconds);
+        } finally {
+            users.shutdownNow();
+        }
+    }
+
+    private String report(Samples samples, int concurrency, int seconds) {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "%s, %d users, %d s measured%n%-8s %8s %8s %7s %9s %9s %9s %9s %9s%n", baseUrl, concurrency, seconds,
+                "endpoint", "ok", "errors", "err %", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        List<Long> all = new ArrayList<>();
+        int allErrors = 0;
+        for (Endpoint endpoint : mix.keySet()) {
+            List<Long> latencies = samples.latencies.getOrDefault(endpoint, List.of());
+            int errors = samples.errors.getOrDefault(endpoint, 0);
+            all.addAll(latencies);
+            allErrors += errors;
+            sb.append(row(endpoint.name().toLowerCase(Locale.ROOT), latencies, errors, seconds));
+        }
+        sb.append(row("all", all, allErrors, seconds));
+        samples.causes.forEach((cause, count) -> sb.append(String.format(Locale.ROOT, "  %6d x %s%n", count, cause)));
+        return sb.toString();
+    }
+
+    private static String row(String label, List<Long> latencies, int errors, int seconds) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        int total = sorted.length + errors;
+        return String.format(Locale.ROOT, "%-8s %8d %8d %7.2f %9.1f %9.1f %9.1f %9.1f %9.1f%n", label, sorted.length,
+                errors, total == 0 ? 0.0 : 100.0 * errors / total, total / (double) Math.max(1, seconds),
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100));
+    }
+
+    static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))] / 1e6;
+    }
+
+    // Usage: LoadTest [--url U] [--concurrency N] [--duration S] [--warmup S] [--mix image=1,text=1,...]
+    //                 [--image FILE] [--text-bytes N] [--plugin TASK]
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                System.err.println("Usage: LoadTest [--url U] [--concurrency N] [--duration S] [--warmup S] "
+                        + "[--mix image=1,text=1,plugin=1,status=1] [--image FILE] [--text-bytes N] [--plugin TASK]");
+                System.exit(2);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        System.out.print(new LoadTest(options).run());
+    }
+}
@@ -9,6 +9,13 @@ import platform
 import importlib.util
 import glob
 import json
+import socket
+import select
+import signal
+import threading
+import random
+from collections import OrderedDict
+from concurrent.futures import ThreadPoolExecutor
 import numpy as np
 import cv2
 
@@ -22,6 +29,7 @@ try:
     import pandas as pd
     from sklearn.linear_model import LinearRegression
     from textblob import TextBlob
+    from textblob.sentiments import PatternAnalyzer
     ML_AVAILABLE = True
 except ImportError:
     ML_AVAILABLE = False
@@ -49,30 +57,125 @@ parser.add_argument("--model", type=str, default="yolov8n.pt")
 parser.add_argument("--conf", type=float, default=0.5)
 parser.add_argument("--mem-key", type=str, default="")
 parser.add_argument("--instance-id", type=str, default="default")
+parser.add_argument("--worker-index", type=int, default=0)
+parser.add_argument("--cpus", type=str, default="")
+parser.add_argument("--threads", type=int, default=0)
+parser.add_argument("--listen", type=str, default="")
+parser.add_argument("--warmup", type=int, default=1)
+parser.add_argument("--concurrency", type=int, default=1)
+parser.add_argument("--zygote", type=str, default="")
+parser.add_argument("--stub", type=str, default=os.environ.get("JPYRUST_STUB", ""))
 args, unknown = parser.parse_known_args()
 
+# Stub mode, "LATENCY_MS[,JITTER_MS[,OUTPUT_BYTES]]": no models load and every task but STATUS
+# reads its input, sleeps, and answers with filler, so the web tier and bridge can be load-tested
+# on a box without torch or model weights.
+STUB = [float(v) for v in args.stub.split(",")] + [0, 0] if args.stub else None
+if STUB: STUB_LATENCY_MS, STUB_JITTER_MS, STUB_OUTPUT = STUB[0], STUB[1], b"x" * int(STUB[2] or 64)
+
 WORK_DIR = os.path.expanduser(f"~/.jpyrust/{args.instance_id}")
 if not os.path.exists(WORK_DIR):
     os.makedirs(WORK_DIR)
 
 TARGET_WIDTH = 640
 yolo_model = None
+sentiment_analyzer = None
+
+def parse_cpu_list(cpu_list):
+    cpus = set()
+    for part in cpu_list.split(","):
+        part = part.strip()
+        if not part: continue
+        if "-" in part:
+            lo, hi = part.split("-", 1)
+            cpus.update(range(int(lo), int(hi) + 1))
+        else:
+            cpus.add(int(part))
+    return cpus
+
+def apply_placement():
+    if args.cpus and hasattr(os, "sched_setaffinity"):
+        try:
+            os.sched_setaffinity(0, parse_cpu_list(args.cpus))
+        except OSError as e:
+            print(f"[Worker {args.worker_index}] sched_setaffinity failed: {e}", file=sys.stderr, flush=True)
+    if args.threads > 0:
+        cv2.setNumThreads(args.threads)
+        if 'torch' in sys.modules:
+            torch.set_num_threads(args.threads)
+            try:
+                torch.set_num_interop_threads(1)
+            except RuntimeError:
+                pass
 
 def initialize_models():
-    global yolo_model
+    global yolo_model, sentiment_analyzer
+    if STUB: return
+    if ML_AVAILABLE:
+        sentiment_analyzer = PatternAnalyzer()
     if YOLO_AVAILABLE:
         try:
             yolo_model = YOLO(args.model)
             yolo_model.to(DEVICE)
         except:
             yolo_model = None
-    load_plugins()
+    load_plugins(warm=not args.zygote)
+
+def warm_up():
+    if args.warmup <= 0 or STUB: return
+    started = time.time()
+    image = np.random.default_rng(0).integers(0, 256, (TARGET_WIDTH, TARGET_WIDTH, 3), dtype=np.uint8)
+    _, encoded = cv2.imencode('.jpg', image)
+    for _ in range(args.warmup):
+        try:
+            decoded = cv2.imdecode(encoded, cv2.IMREAD_COLOR)
+            if yolo_model: yolo_model(resize_image(decoded, TARGET_WIDTH), conf=args.conf, verbose=False)
+            cv2.imencode('.jpg', cv2.Canny(cv2.cvtColor(decoded, cv2.COLOR_BGR2GRAY), 100, 200))
+            if sentiment_analyzer: sentiment_analyzer.analyze("warm up run")
+        except Exception as e:
+            print(f"[Worker {args.worker_index}] Warm-up failed: {e}", file=sys.stderr, flush=True)
+            return
+    elapsed_ms = (time.time() - started) * 1000
+    print(f"[Worker {args.worker_index}] Warm-up: {args.warmup} run(s) in {elapsed_ms:.0f} ms", file=sys.stderr, flush=True)
+
+PLUGIN_TASKS = set()
+THREAD_SAFE_TASKS = {"YOLO", "NLP_TEXTBLOB", "NLP_BATCH", "REGRESSION", "REGRESSION_COLS", "EDGE_DETECT", "STATUS", "TABLE", "PLUGINS", "TRACK", "PROFILE"}
+CONTROL_TASKS = {"STATUS", "PROFILE"}
+EXECUTION_LOCK = threading.Lock()
+MODEL_LOCK = threading.Lock()
+REGRESSION_LOCK = threading.Lock()
+GATE_LOCK = threading.Lock()
+GATE_THUMB = 32
+MAX_GATED_STREAMS = 256
+gated_streams = OrderedDict()
+TRACK_LOCK = threading.Lock()
+TRACK_LOW_SCORE = 0.1
+TRACK_IOU = 0.3
+MAX_TRACKED_STREAMS = 256
+tracked_streams = OrderedDict()
+
+# Plugins are imported and warmed up without any lock; the registry (handlers, thread-safe
+# sets, manifests) then changes in one step under REGISTRY_LOCK, and readers look up a task's
+# handler and its thread safety together under the same lock. A plugin call already running
+# keeps its own module and manifest, so a reload never changes a request halfway.
+REGISTRY_LOCK = threading.Lock()
 
-def load_plugins():
+# Plugin warm-up may start thread pools or a CUDA context, neither of which survives fork, so
+# the zygote only collects the hooks and every forked worker runs them for itself.
+deferred_warmups = []
+
+def warm_up_plugins():
+    for task_type, warmup in deferred_warmups:
+        try:
+            warmup()
+        except Exception as e:
+            print(f"[Worker {args.worker_index}] Plugin {task_type} warm-up failed: {e}", file=sys.stderr, flush=True)
+    deferred_warmups.clear()
+
+def load_plugins(warm=True):
     plugin_dir = os.path.join(os.path.dirname(os.path.abspath(__file__)), "plugins")
-    if not os.path.exists(plugin_dir):
-        return
-    plugin_files = glob.glob(os.path.join(plugin_dir, "*.py"))
+    loaded, tables, manifests, safe_tasks, safe_tables = {}, {}, {}, set(), set()
+    plugin_files = glob.glob(os.path.join(plugin_dir, "*.py")) if os.path.exists(plugin_dir) else []
     for plugin_file in plugin_files:
         if "__init__" in plugin_file: continue
         try:
@@ -80,15 +183,145 @@ def load_plugins():
             spec = importlib.util.spec_from_file_location(module_name, plugin_file)
             module = importlib.util.module_from_spec(spec)
             spec.loader.exec_module(module)
-            if hasattr(module, "TASK_TYPE") and hasattr(module, "handle"):
-                TASK_HANDLERS[module.TASK_TYPE] = module.handle
+            thread_safe = getattr(module, "THREAD_SAFE", False)
+            if hasattr(module, "TASK_TYPE") and (hasattr(module, "handle") or hasattr(module, "process")):
+                if hasattr(module, "warmup"):
+                    if warm: module.warmup()
+                    else: deferred_warmups.append((module.TASK_TYPE, module.warmup))
+                manifest = manifests[module.TASK_TYPE] = plugin_manifest(module)
+                loaded[module.TASK_TYPE] = module.handle if hasattr(module, "handle") else plugin_handler(module, manifest)
+                if thread_safe: safe_tasks.add(module.TASK_TYPE)
+            if hasattr(module, "TABLE_TASK") and hasattr(module, "handle_table"):
+                tables[module.TABLE_TASK.upper()] = module.handle_table
+                if thread_safe: safe_tables.add(module.TABLE_TASK.upper())
         except:
             pass
+    with REGISTRY_LOCK:
+        for task_type in PLUGIN_TASKS | loaded.keys():
+            TASK_HANDLERS.pop(task_type, None)
+            THREAD_SAFE_TASKS.discard(task_type)
+        for op in PLUGIN_TABLES | tables.keys():
+            TABLE_HANDLERS.pop(op, None)
+            THREAD_SAFE_TABLES.discard(op)
+        TASK_HANDLERS.update(loaded)
+        THREAD_SAFE_TASKS.update(safe_tasks)
+        TABLE_HANDLERS.update(tables)
+        THREAD_SAFE_TABLES.update(safe_tables)
+        PLUGIN_TASKS.clear()
+        PLUGIN_TASKS.update(loaded)
+        PLUGIN_TABLES.clear()
+        PLUGIN_TABLES.update(tables)
+        PLUGIN_MANIFESTS.clear()
+        PLUGIN_MANIFESTS.update(manifests)
+        CHEAP_TASKS.clear()
+        CHEAP_TASKS.update(t for t, m in manifests.items() if m["cost"] == "cheap" and m["thread_safe"])
+    with PLUGIN_CACHE_LOCK: plugin_cache.clear()
+    return sorted(loaded) + sorted(f"TABLE:{op}" for op in tables)
+
+# Plugins with a `process(data, args)` function declare what they are instead of parsing the
+# protocol themselves: PURE results are cached, THREAD_SAFE ones run concurrently, COST
+# "cheap" ones skip the pool queue, and `process_batch(values, args)` serves BATCH requests in
+# one call. INPUT_TYPE/OUTPUT_TYPE are "text", "bytes" or "json".
+PLUGIN_MANIFESTS = {}
+CHEAP_TASKS = set()
+PLUGIN_CACHE_SIZE = 1024
+PLUGIN_CACHE_LOCK = threading.Lock()
+plugin_cache = OrderedDict()
+
+def plugin_manifest(module):
+    declarative = not hasattr(module, "handle")
+    return {
+        "pure": declarative and bool(getattr(module, "PURE", False)),
+        "thread_safe": bool(getattr(module, "THREAD_SAFE", False)),
+        "batch": declarative and hasattr(module, "process_batch"),
+        "cost": str(getattr(module, "COST", "heavy")).lower(),
+        "input": str(getattr(module, "INPUT_TYPE", "bytes")).lower(),
+        "output": str(getattr(module, "OUTPUT_TYPE", "bytes")).lower(),
+    }
+
+def decode_plugin_value(data, kind):
+    if kind == "text": return bytes(data).decode('utf-8')
+    if kind == "json": return json.loads(bytes(data)) if len(data) else None
+    return bytes(data)
+
+def encode_plugin_value(value, kind):
+    if kind == "json": return json.dumps(value).encode('utf-8')
+    if isinstance(value, str): return value.encode('utf-8')
+    return bytes(value)
+
+def unpack_items(raw_data):
+    count = struct.unpack_from("<I", raw_data, 0)[0]
+    view = memoryview(raw_data)
+    offset, items = 4, []
+    for _ in range(count):
+        length = struct.unpack_from("<I", raw_data, offset)[0]
+        items.append(view[offset + 4:offset + 4 + length])
+        offset += 4 + length
+    return items
+
+def pack_items(items):
+    return struct.pack("<I", len(items)) + b"".join(struct.pack("<I", len(item)) + item for item in items)
+
+def run_plugin(module, manifest, task, items, plugin_args):
+    results = [None] * len(items)
+    keys = [(module, plugin_args, bytes(item)) for item in items] if manifest["pure"] else None
+    if keys:
+        with PLUGIN_CACHE_LOCK:
+            for i, key in enumerate(keys):
+                if key in plugin_cache:
+                    plugin_cache.move_to_end(key)
+                    results[i] = plugin_cache[key]
+    todo = [i for i, r in enumerate(results) if r is None]
+    if todo:
+        values = [decode_plugin_value(items[i], manifest["input"]) for i in todo]
+        if manifest["batch"]: outputs = module.process_batch(values, list(plugin_args))
+        else: outputs = [module.process(v, list(plugin_args)) for v in values]
+        for i, output in zip(todo, outputs):
+            results[i] = encode_plugin_value(output, manifest["output"])
+        if keys:
+            with PLUGIN_CACHE_LOCK:
+                for i in todo:
+                    plugin_cache[keys[i]] = results[i]
+                while len(plugin_cache) > PLUGIN_CACHE_SIZE: plugin_cache.popitem(last=False)
+    return results
+
+def plugin_handler(module, manifest):
+    task = module.TASK_TYPE
+    def handle(request_id, raw_metadata):
+        try:
+            raw_data, meta, out_info = parse_input_protocol(request_id, raw_metadata, task)
+            mode, plugin_args = (meta[0].upper(), tuple(meta[1:])) if meta else ("CALL", ())
+            if mode == "BATCH":
+                payload = pack_items(run_plugin(module, manifest, task, unpack_items(raw_data), plugin_args))
+            else:
+                payload = run_plugin(module, manifest, task, [raw_data], plugin_args)[0]
+            written = write_output_data(request_id, payload, out_info)
+            return f"DONE {written}"
+        except Exception as e:
+            return f"ERROR {e}"
+    return handle
+
+def handle_plugins(request_id, raw_metadata):
+    try:
+        _, _, out_info = parse_input_protocol(request_id, raw_metadata, "PLUGINS")
+        with REGISTRY_LOCK: manifests = sorted(PLUGIN_MANIFESTS.items())
+        lines = [f"{task} " + " ".join(f"{k}={int(v) if isinstance(v, bool) else v}" for k, v in m.items())
+                 for task, m in manifests]
+        written = write_output_data(request_id, "\n".join(lines).encode('utf-8'), out_info)
+        return f"DONE {written}"
+    except Exception as e:
+        return f"ERROR {e}"
+
+INLINE_OUTPUT = "INLINE"
+request_context = threading.local()
 
 def parse_input_protocol(request_id, metadata, task_type=None):
-    TEXT_BASED_TASKS = {"NLP_TEXTBLOB", "SENTIMENT", "REGRESSION", "STATUS"}
+    TEXT_BASED_TASKS = {"NLP_TEXTBLOB", "SENTIMENT", "REGRESSION", "STATUS", "RELOAD_PLUGINS", "PLUGINS", "TRACK", "PROFILE"}
     force_file_output = task_type and task_type.upper() in TEXT_BASED_TASKS
-    
+
+    if len(metadata) > 1 and metadata[0] == "INLINE":
+        return request_context.inline_input, metadata[2:], INLINE_OUTPUT
+
     if len(metadata) > 0 and metadata[0] == "SHMEM":
         in_shm_name = metadata[1]
         in_size = int(metadata[2])
@@ -118,9 +351,13 @@ def parse_input_protocol(request_id, metadata, task_type=None):
     return data, metadata, None
 
 def write_output_data(request_id, data_bytes, out_shm_info):
+    if out_shm_info is INLINE_OUTPUT:
+        request_context.inline_output = bytes(data_bytes)
+        return len(data_bytes)
+    if out_shm_info and len(data_bytes) > out_shm_info[1]:
+        out_shm_info = None
     if out_shm_info:
         shm_name, capacity = out_shm_info
-        if len(data_bytes) > capacity: return 0
         for attempt in range(15):
             try:
                 shm = multiprocessing.shared_memory.SharedMemory(name=shm_name)
@@ -143,27 +380,275 @@ def resize_image(image, target_width):
     scale = target_width / w
     return cv2.resize(image, (target_width, int(h * scale)), interpolation=cv2.INTER_LINEAR)
 
+def encode_detections_json(result, imgsz, reused=None):
+    detections = []
+    if result is not None and result.boxes:
+        for box in result.boxes:
+            x1, y1, x2, y2 = box.xyxy[0].tolist()
+            detections.append({
+                "bbox": [x1, y1, x2-x1, y2-y1],
+                "label": result.names[int(box.cls[0])],
+                "score": float(box.conf[0])
+            })
+    response = {"detections": detections, "imgsz": imgsz}
+    if reused is not None: response["reused"] = reused
+    return json.dumps(response).encode('utf-8')
+
+def encode_detections_binary(result, imgsz):
+    boxes = result.boxes if result is not None else None
+    if boxes is None or len(boxes) == 0:
+        packed = struct.pack("<II", 0, 0)
+    else:
+        packed = pack_detections(boxes.xyxy.cpu().numpy(), boxes.conf.cpu().numpy(), boxes.cls.cpu().numpy(), result.names)
+    return packed + struct.pack("<i", imgsz)
+
+def pack_detections(xyxy, scores, class_ids, names):
+    xywh = np.asarray(xyxy).astype('<f4')
+    xywh[:, 2:] -= xywh[:, :2]
+    scores = np.asarray(scores).astype('<f4')
+    class_ids = np.asarray(class_ids).astype('<i4')
+    table = []
+    for cid in np.unique(class_ids).tolist():
+        name = str(names[cid]).encode('utf-8')
+        table.append(struct.pack("<iH", cid, len(name)) + name)
+    header = struct.pack("<II", len(class_ids), len(table))
+    return b"".join([header, xywh.tobytes(), scores.tobytes(), class_ids.tobytes()] + table)
+
+def tile_origins(length, tile, stride):
+    if length <= tile: return [0]
+    origins = list(range(0, length - tile, stride))
+    origins.append(length - tile)
+    return origins
+
+# Runs the full-resolution image as overlapping tiles in one batched call. Tiles are dealt
+# round-robin over `parts` requests so the bridge can fan one image out across workers;
+# boxes come back in image coordinates and cross-tile NMS happens after the merge.
+def detect_tiles(image, tile, overlap, part, parts):
+    h, w = image.shape[:2]
+    stride = max(1, tile - overlap)
+    grid = [(x, y) for y in tile_origins(h, tile, stride) for x in tile_origins(w, tile, stride)]
+    mine = grid[part::parts]
+    if not yolo_model or not mine:
+        return struct.pack("<II", 0, 0)
+    crops = [image[y:y + tile, x:x + tile] for x, y in mine]
+    with MODEL_LOCK:
+        results = yolo_model(crops, conf=args.conf, imgsz=tile, verbose=False)
+    xyxy, scores, class_ids, names = [], [], [], {}
+    for (x, y), result in zip(mine, results):
+        if result.boxes is None or len(result.boxes) == 0: continue
+        boxes = result.boxes.xyxy.cpu().numpy()
+        boxes[:, [0, 2]] += x
+        boxes[:, [1, 3]] += y
+        xyxy.append(boxes)
+        scores.append(result.boxes.conf.cpu().numpy())
+        class_ids.append(result.boxes.cls.cpu().numpy())
+        names.update(result.names)
+    if not xyxy:
+        return struct.pack("<II", 0, 0)
+    return pack_detections(np.concatenate(xyxy), np.concatenate(scores), np.concatenate(class_ids), names)
+
+DECODE_POOL = ThreadPoolExecutor(max(1, min(8, os.cpu_count() or 1)), thread_name_prefix="decode")
+
+def decode_item(item):
+    if len(item) == 0: return None
+    image = cv2.imdecode(np.frombuffer(item, dtype=np.uint8), cv2.IMREAD_COLOR)
+    return resize_image(image, TARGET_WIDTH) if image is not None else None
+
+# Offline batches: decode in parallel (imdecode releases the GIL), then one model call over the
+# whole list so the network runs at full batch size. An undecodable item gets an empty result
+# with input size -1 instead of failing the rest of its batch.
+def detect_batch(items, imgsz):
+    images = list(DECODE_POOL.map(decode_item, items))
+    valid = [i for i, image in enumerate(images) if image is not None]
+    results = [None] * len(images)
+    if yolo_model and valid:
+        with MODEL_LOCK:
+            batch = yolo_model([images[i] for i in valid], conf=args.conf, imgsz=imgsz, verbose=False)
+        for i, result in zip(valid, batch): results[i] = result
+    return pack_items([encode_detections_binary(results[i], imgsz if images[i] is not None else -1)
+                       for i in range(len(images))])
+
+def frame_signature(image):
+    gray = cv2.cvtColor(image, cv2.COLOR_BGR2GRAY)
+    return cv2.resize(gray, (GATE_THUMB, GATE_THUMB), interpolation=cv2.INTER_AREA).astype(np.int16)
+
+# A gated stream reuses its last detections while the frame stays within `threshold` (mean
+# absolute difference of a 32x32 grey thumbnail, 0..1) of the frame they were computed on,
+# and re-runs the model at least every `refresh` frames. Anchors are per worker, so frames
+# of one stream can land on any worker; a worker without an anchor just runs the model.
+def gate_lookup(stream, signature, threshold, refresh):
+    with GATE_LOCK:
+        entry = gated_streams.get(stream)
+        if entry is None: return None
+        gated_streams.move_to_end(stream)
+        if entry["reused"] + 1 >= refresh: return None
+        if np.abs(signature - entry["signature"]).mean() / 255.0 >= threshold: return None
+        entry["reused"] += 1
+        return entry["result"], entry["imgsz"]
+
+def gate_store(stream, signature, result, imgsz):
+    with GATE_LOCK:
+        gated_streams[stream] = {"signature": signature, "result": result, "imgsz": imgsz, "reused": 0}
+        gated_streams.move_to_end(stream)
+        while len(gated_streams) > MAX_GATED_STREAMS: gated_streams.popitem(last=False)
+
+class StreamTracker:
+    def __init__(self, detect_every, max_age):
+        self.lock = threading.Lock()
+        self.detect_every, self.max_age = detect_every, max_age
+        self.frame = -1
+        self.next_id = 1
+        self.tracks = []
+        self.names = {}
+
+def box_iou(a, b):
+    lt = np.maximum(a[:, None, :2], b[None, :, :2])
+    rb = np.minimum(a[:, None, 2:], b[None, :, 2:])
+    inter = np.prod(np.clip(rb - lt, 0, None), axis=2)
+    area_a = np.prod(a[:, 2:] - a[:, :2], axis=1)
+    area_b = np.prod(b[:, 2:] - b[:, :2], axis=1)
+    return inter / np.maximum(area_a[:, None] + area_b[None, :] - inter, 1e-6)
+
+def associate(tracks, boxes, class_ids):
+    if not tracks or len(boxes) == 0: return []
+    iou = box_iou(np.array([t["box"] for t in tracks]), boxes)
+    iou[np.array([t["cls"] for t in tracks])[:, None] != class_ids[None, :]] = 0
+    matches = []
+    while iou.size:
+        i, j = np.unravel_index(np.argmax(iou), iou.shape)
+        if iou[i, j] < TRACK_IOU: break
+        matches.append((int(i), int(j)))
+        iou[i, :] = 0
+        iou[:, j] = 0
+    return matches
+
+# ByteTrack-style association: confident detections claim tracks first, then low-score ones
+# may only extend tracks left unmatched, so a briefly occluded object keeps its id without
+# noise opening new tracks. Between detector runs (every `detect_every` frames) tracks coast
+# along their last velocity and the frame is not even decoded.
+def track_frame(tracker, raw_data, imgsz):
+    with tracker.lock:
+        tracker.frame += 1
+        for t in tracker.tracks: t["box"] = t["box"] + t["vel"]
+        detected = tracker.frame % tracker.detect_every == 0 and yolo_model is not None
+        if detected:
+            image = cv2.imdecode(np.frombuffer(raw_data, dtype=np.uint8), cv2.IMREAD_COLOR)
+            if image is None: raise ValueError("Failed to decode image")
+            image = resize_image(image, TARGET_WIDTH)
+            with MODEL_LOCK:
+                result = yolo_model(image, conf=min(args.conf, TRACK_LOW_SCORE), imgsz=imgsz, verbose=False)[0]
+            tracker.names.update(result.names)
+            update_tracks(tracker, result.boxes.xyxy.cpu().numpy(), result.boxes.conf.cpu().numpy(),
+                          result.boxes.cls.cpu().numpy().astype(int))
+        tracker.tracks = [t for t in tracker.tracks if tracker.frame - t["seen"] <= tracker.max_age]
+        return [t for t in tracker.tracks if t["seen"] == tracker.frame] if detected else list(tracker.tracks)
+
+def update_tracks(tracker, xyxy, scores, class_ids):
+    high = np.flatnonzero(scores >= args.conf)
+    low = np.flatnonzero(scores < args.conf)
+    pairs = [(ti, high[d]) for ti, d in associate(tracker.tracks, xyxy[high], class_ids[high])]
+    claimed = {ti for ti, _ in pairs}
+    rest = [i for i in range(len(tracker.tracks)) if i not in claimed]
+    pairs += [(rest[ti], low[d]) for ti, d in associate([tracker.tracks[i] for i in rest], xyxy[low], class_ids[low])]
+    for ti, d in pairs:
+        t = tracker.tracks[ti]
+        t["vel"] = (xyxy[d] - t["last"]) / (tracker.frame - t["seen"])
+        t.update(box=xyxy[d], last=xyxy[d], seen=tracker.frame, score=float(scores[d]))
+    used = {int(d) for _, d in pairs}
+    for d in high:
+        if int(d) in used: continue
+        tracker.tracks.append({"id": tracker.next_id, "box": xyxy[d], "last": xyxy[d], "vel": np.zeros(4, dtype=np.float32),
+                               "seen": tracker.frame, "score": float(scores[d]), "cls": int(class_ids[d])})
+        tracker.next_id += 1
+
+def stream_tracker(stream, detect_every, max_age):
+    with TRACK_LOCK:
+        tracker = tracked_streams.get(stream)
+        if tracker is None or (tracker.detect_every, tracker.max_age) != (detect_every, max_age):
+            tracker = tracked_streams[stream] = StreamTracker(detect_every, max_age)
+        tracked_streams.move_to_end(stream)
+        while len(tracked_streams) > MAX_TRACKED_STREAMS: tracked_streams.popitem(last=False)
+        return tracker
+
+def encode_tracks(tracks, names, imgsz, binary):
+    if not binary:
+        return json.dumps({"detections": [{
+            "bbox": [float(t["box"][0]), float(t["box"][1]), float(t["box"][2] - t["box"][0]), float(t["box"][3] - t["box"][1])],
+            "label": names.get(t["cls"], str(t["cls"])), "score": t["score"], "track_id": t["id"]} for t in tracks],
+            "imgsz": imgsz}).encode('utf-8')
+    if not tracks: return struct.pack("<IIi", 0, 0, imgsz)
+    packed = pack_detections(np.array([t["box"] for t in tracks]), [t["score"] for t in tracks],
+                             [t["cls"] for t in tracks], names)
+    return packed + struct.pack("<i", imgsz) + np.array([t["id"] for t in tracks], dtype='<i4').tobytes()
+
+def handle_track_task(request_id, raw_metadata):
+    try:
+        _, metadata, out_info = parse_input_protocol(request_id, raw_metadata, "TRACK")
+        if len(metadata) < 2 or metadata[0].upper() != "CLOSE": return "ERROR Usage: CLOSE <stream>"
+        with TRACK_LOCK: closed = tracked_streams.pop(metadata[1], None) is not None
+        written = write_output_data(request_id, b"1" if closed else b"0", out_info)
+        return f"DONE {written}"
+    except Exception as e:
+        return f"ERROR {e}"
+
+# Detection metadata is "width height channels" followed by keywords, each taking a fixed
+# number of arguments. Arguments are consumed by position, so a stream id may be any token,
+# including one of the keywords.
+YOLO_OPTIONS = {"BINARY": 0, "BATCH": 0, "IMGSZ": 1, "TILED": 4, "GATE": 3, "TRACK": 3}
+
+def parse_options(tokens, arities):
+    options, at = {}, 0
+    while at < len(tokens):
+        keyword = tokens[at].upper()
+        if keyword not in arities: raise ValueError(f"Unknown option: {tokens[at]}")
+        end = at + 1 + arities[keyword]
+        if end > len(tokens): raise ValueError(f"{keyword} takes {arities[keyword]} argument(s)")
+        options[keyword] = tokens[at + 1:end]
+        at = end
+    return options
+
 def handle_yolo_task(request_id, raw_metadata):
     try:
         raw_data, metadata, out_info = parse_input_protocol(request_id, raw_metadata)
+        options = parse_options(metadata[3:], YOLO_OPTIONS)
+        binary = "BINARY" in options
+        # IMGSZ comes from the bridge's latency controller: boxes stay in the coordinates of
+        # the resized image, only the network input shrinks.
+        imgsz = int(options["IMGSZ"][0]) if "IMGSZ" in options else TARGET_WIDTH
+        if "TRACK" in options:
+            stream_id, detect_every, max_age = options["TRACK"]
+            tracker = stream_tracker(stream_id, int(detect_every), int(max_age))
+            payload = encode_tracks(track_frame(tracker, raw_data, imgsz), tracker.names, imgsz, binary)
+            written = write_output_data(request_id, payload, out_info)
+            return f"DONE {written}"
+        if "BATCH" in options:
+            written = write_output_data(request_id, detect_batch(unpack_items(raw_data), imgsz), out_info)
+            return f"DONE {written}"
         nparr = np.frombuffer(raw_data, dtype=np.uint8)
         image = cv2.imdecode(nparr, cv2.IMREAD_COLOR)
         if image is None: return "ERROR Failed to decode image"
+        if "TILED" in options:
+            tile, overlap, part, parts = (int(v) for v in options["TILED"])
+            written = write_output_data(request_id, detect_tiles(image, tile, overlap, part, parts), out_info)
+            return f"DONE {written}"
         image = resize_image(image, TARGET_WIDTH)
-        detections = []
-        if yolo_model:
-            results = yolo_model(image, conf=args.conf, verbose=False)
-            boxes = results[0].boxes
-            if boxes:
-                for box in boxes:
-                    x1, y1, x2, y2 = box.xyxy[0].tolist()
-                    detections.append({
-                        "bbox": [x1, y1, x2-x1, y2-y1],
-                        "label": results[0].names[int(box.cls[0])],
-                        "score": float(box.conf[0])
-                    })
-        res_json = json.dumps({"detections": detections})
-        written = write_output_data(request_id, res_json.encode('utf-8'), out_info)
+        gate, cached = None, None
+        if "GATE" in options:
+            stream_id, threshold, refresh = options["GATE"]
+            gate = (stream_id, float(threshold), int(refresh))
+            signature = frame_signature(image)
+            cached = gate_lookup(gate[0], signature, gate[1], gate[2])
+        if cached:
+            result, imgsz = cached
+        else:
+            result = None
+            if yolo_model:
+                with MODEL_LOCK:
+                    result = yolo_model(image, conf=args.conf, imgsz=imgsz, verbose=False)[0]
+            if gate: gate_store(gate[0], signature, result, imgsz)
+        if binary: payload = encode_detections_binary(result, imgsz)
+        else: payload = encode_detections_json(result, imgsz, cached is not None if gate else None)
+        written = write_output_data(request_id, payload, out_info)
         return f"DONE {written}"
     except Exception as e:
         return f"ERROR {e}"
@@ -175,13 +660,46 @@ def handle_nlp_task(request_id, raw_metadata):
         text = raw_data.decode('utf-8')
         blob = TextBlob(text)
         pol = blob.sentiment.polarity
-        sent = "POSITIVE" if pol > 0.1 else ("NEGATIVE" if pol < -0.1 else "NEUTRAL")
+        sent = SENTIMENT_LABELS[classify_polarity(pol)]
         res = f"{sent} (Polarity: {pol:.2f})"
         written = write_output_data(request_id, res.encode('utf-8'), out_info)
         return f"DONE {written}"
     except Exception as e:
         return f"ERROR {e}"
 
+SENTIMENT_LABELS = ("NEGATIVE", "NEUTRAL", "POSITIVE")
+
+def classify_polarity(pol):
+    return 2 if pol > 0.1 else (0 if pol < -0.1 else 1)
+
+def unpack_texts(raw_data):
+    count = struct.unpack_from("<I", raw_data, 0)[0]
+    view = memoryview(raw_data)
+    offset = 4
+    texts = []
+    for _ in range(count):
+        length = struct.unpack_from("<I", raw_data, offset)[0]
+        offset += 4
+        texts.append(str(view[offset:offset + length], 'utf-8'))
+        offset += length
+    return texts
+
+def handle_nlp_batch_task(request_id, raw_metadata):
+    if not ML_AVAILABLE: return "ERROR ML not installed"
+    try:
+        raw_data, _, out_info = parse_input_protocol(request_id, raw_metadata)
+        texts = unpack_texts(raw_data)
+        analyze = sentiment_analyzer.analyze
+        polarities = np.fromiter((analyze(t).polarity for t in texts), dtype=np.float64, count=len(texts))
+        labels = np.ones(len(texts), dtype=np.uint8)
+        labels[polarities > 0.1] = 2
+        labels[polarities < -0.1] = 0
+        res = struct.pack("<I", len(texts)) + polarities.astype('<f4').tobytes() + labels.tobytes()
+        written = write_output_data(request_id, res, out_info)
+        return f"DONE {written}"
+    except Exception as e:
+        return f"ERROR {e}"
+
 def handle_regression_task(request_id, raw_metadata):
     if not ML_AVAILABLE: return "ERROR ML not installed"
     try:
@@ -195,11 +713,157 @@ def handle_regression_task(request_id, raw_metadata):
     except Exception as e:
         return f"ERROR {e}"
 
+class OnlineRegression:
+    __slots__ = ("n", "mean_x", "mean_y", "m2_x", "c_xy")
+
+    def __init__(self):
+        self.n = 0
+        self.mean_x = 0.0
+        self.mean_y = 0.0
+        self.m2_x = 0.0
+        self.c_xy = 0.0
+
+    def update(self, xs, ys):
+        n_b = len(xs)
+        if n_b == 0: return
+        mx_b, my_b = float(xs.mean()), float(ys.mean())
+        dx = xs - mx_b
+        m2_b = float(dx @ dx)
+        c_b = float(dx @ (ys - my_b))
+        n = self.n + n_b
+        delta_x, delta_y = mx_b - self.mean_x, my_b - self.mean_y
+        weight = self.n * n_b / n
+        self.m2_x += m2_b + delta_x * delta_x * weight
+        self.c_xy += c_b + delta_x * delta_y * weight
+        self.mean_x += delta_x * n_b / n
+        self.mean_y += delta_y * n_b / n
+        self.n = n
+
+    def pack(self):
+        slope = self.c_xy / self.m2_x if self.m2_x > 0 else 0.0
+        return struct.pack("<ddQ", slope, self.mean_y - slope * self.mean_x, self.n)
+
+MAX_REGRESSION_SESSIONS = 1024
+regression_sessions = OrderedDict()
+
+def unpack_columns(raw_data):
+    count = struct.unpack_from("<Q", raw_data, 0)[0]
+    cols = np.frombuffer(raw_data, dtype='<f8', count=2 * count, offset=8)
+    return cols[:count], cols[count:]
+
+def handle_regression_columns_task(request_id, raw_metadata):
+    try:
+        raw_data, meta, out_info = parse_input_protocol(request_id, raw_metadata)
+        op, session_id = meta[0].upper(), meta[1]
+        xs, ys = unpack_columns(raw_data)
+        with REGRESSION_LOCK:
+            if op == "FIT":
+                model = OnlineRegression()
+                model.update(xs, ys)
+            elif op == "UPDATE":
+                model = regression_sessions.setdefault(session_id, OnlineRegression())
+                model.update(xs, ys)
+                regression_sessions.move_to_end(session_id)
+                while len(regression_sessions) > MAX_REGRESSION_SESSIONS: regression_sessions.popitem(last=False)
+            elif op == "QUERY":
+                model = regression_sessions.get(session_id) or OnlineRegression()
+                if session_id in regression_sessions: regression_sessions.move_to_end(session_id)
+            elif op == "RESET":
+                model = regression_sessions.pop(session_id, None) or OnlineRegression()
+            else:
+                return f"ERROR Unknown regression op: {op}"
+            payload = model.pack()
+        written = write_output_data(request_id, payload, out_info)
+        return f"DONE {written}"
+    except Exception as e:
+        return f"ERROR {e}"
+
+# Columnar tables: u64 rows, u32 columns, u32 data offset, then per column (u8 type, u16 name
+# length, UTF-8 name). Column data starts at the offset, each column padded to 8 bytes, so
+# every column is an aligned little-endian array numpy can view without copying.
+TABLE_TYPES = {1: np.dtype('<f8'), 2: np.dtype('<f4'), 3: np.dtype('<i8'), 4: np.dtype('<i4')}
+TABLE_CODES = {dtype: code for code, dtype in TABLE_TYPES.items()}
+
+def unpack_table(raw_data):
+    rows, count, offset = struct.unpack_from("<QII", raw_data, 0)
+    pos, specs = 16, []
+    for _ in range(count):
+        code, name_len = struct.unpack_from("<BH", raw_data, pos)
+        specs.append((bytes(raw_data[pos + 3:pos + 3 + name_len]).decode('utf-8'), TABLE_TYPES[code]))
+        pos += 3 + name_len
+    columns = {}
+    for name, dtype in specs:
+        columns[name] = np.frombuffer(raw_data, dtype=dtype, count=rows, offset=offset)
+        offset += (rows * dtype.itemsize + 7) & ~7
+    return columns
+
+def table_columns(table):
+    if isinstance(table, dict): return list(table.items())
+    if hasattr(table, "column_names") and hasattr(table, "column"):
+        return [(name, table.column(i).to_numpy()) for i, name in enumerate(table.column_names)]
+    return [(str(name), table[name].to_numpy()) for name in table.columns]
+
+def pack_table(table):
+    columns = []
+    for name, values in table_columns(table):
+        values = np.asarray(values)
+        dtype = values.dtype.newbyteorder('<')
+        if dtype not in TABLE_CODES:
+            dtype = np.dtype('<i8') if values.dtype.kind in "biu" else np.dtype('<f8')
+        columns.append((str(name).encode('utf-8'), np.ascontiguousarray(values, dtype=dtype)))
+    rows = len(columns[0][1]) if columns else 0
+    if any(len(values) != rows for _, values in columns):
+        raise ValueError("Table columns differ in length")
+    header = b"".join(struct.pack("<BH", TABLE_CODES[values.dtype], len(name)) + name for name, values in columns)
+    offset = (16 + len(header) + 7) & ~7
+    parts = [struct.pack("<QII", rows, len(columns), offset), header, bytes(offset - 16 - len(header))]
+    for _, values in columns:
+        data = values.tobytes()
+        parts.append(data + bytes(-len(data) % 8))
+    return b"".join(parts)
+
+def describe_table(frame, _args):
+    columns = frame if isinstance(frame, dict) else {name: frame[name].to_numpy() for name in frame.columns}
+    stats = {}
+    for name, values in columns.items():
+        values = np.asarray(values, dtype=np.float64)
+        if len(values) == 0:
+            stats[name] = np.array([0.0] + [np.nan] * 4)
+        else:
+            stats[name] = np.array([len(values), values.mean(), values.std(), values.min(), values.max()])
+    return stats
+
+TABLE_HANDLERS = {"DESCRIBE": describe_table}
+THREAD_SAFE_TABLES = {"DESCRIBE"}
+PLUGIN_TABLES = set()
+
+def handle_table_task(request_id, raw_metadata):
+    try:
+        raw_data, meta, out_info = parse_input_protocol(request_id, raw_metadata)
+        op, op_args = meta[0].upper(), meta[1:]
+        with REGISTRY_LOCK: handler, thread_safe = TABLE_HANDLERS.get(op), op in THREAD_SAFE_TABLES
+        if not handler: return f"ERROR Unknown table op: {op}"
+        columns = unpack_table(raw_data)
+        frame = pd.DataFrame(columns, copy=False) if ML_AVAILABLE else columns
+        if thread_safe:
+            result = handler(frame, op_args)
+        else:
+            with EXECUTION_LOCK:
+                result = handler(frame, op_args)
+        written = write_output_data(request_id, pack_table(result), out_info)
+        return f"DONE {written}"
+    except Exception as e:
+        return f"ERROR {e}"
+
 def handle_edge_task(request_id, raw_metadata):
     try:
         raw_data, meta, out_info = parse_input_protocol(request_id, raw_metadata)
-        w, h, c = int(meta[0]), int(meta[1]), int(meta[2])
-        img = np.frombuffer(raw_data, dtype=np.uint8).reshape((h, w, c))
+        if len(meta) > 3 and meta[3].upper() == "ENCODED":
+            img = cv2.imdecode(np.frombuffer(raw_data, dtype=np.uint8), cv2.IMREAD_COLOR)
+            if img is None: return "ERROR Failed to decode image"
+        else:
+            w, h, c = int(meta[0]), int(meta[1]), int(meta[2])
+            img = np.frombuffer(raw_data, dtype=np.uint8).reshape((h, w, c))
         gray = cv2.cvtColor(img, cv2.COLOR_BGR2GRAY)
         edges = cv2.cvtColor(cv2.Canny(gray, 100, 200), cv2.COLOR_GRAY2BGR)
         _, jpg = cv2.imencode('.jpg', edges)
@@ -215,7 +879,8 @@ def handle_status(request_id, raw_metadata):
             "uptime": int(time.time() - APP_START_TIME),
             "pid": os.getpid(),
             "device": DEVICE,
-            "instance": args.instance_id
+            "instance": args.instance_id,
+            "stub": bool(STUB)
         }
         _, _, out_info = parse_input_protocol(request_id, raw_metadata, "STATUS")
         written = write_output_data(request_id, json.dumps(status).encode('utf-8'), out_info)
@@ -223,29 +888,322 @@ def handle_status(request_id, raw_metadata):
     except Exception as e:
         return f"ERROR {e}"
 
+def handle_reload_plugins(request_id, raw_metadata):
+    try:
+        plugins = load_plugins()
+        _, _, out_info = parse_input_protocol(request_id, raw_metadata, "RELOAD_PLUGINS")
+        written = write_output_data(request_id, json.dumps({"plugins": plugins}).encode('utf-8'), out_info)
+        return f"DONE {written}"
+    except Exception as e:
+        return f"ERROR {e}"
+
+# Sampling profiler for a live worker. While a window is open, a sampler thread records the
+# stack of every thread running a task each interval. A request's samples are kept only if it
+# took at least threshold_ms, so a rare slow request is not averaged away by the fast ones.
+class TaskProfiler:
+    def __init__(self):
+        self.lock = threading.Lock()
+        self.until = 0.0
+        self.threshold_ms = 0.0
+        self.interval = 0.005
+        self.running = {}
+        self.stacks = {}
+        self.requests = self.kept = 0
+        self.sampler = None
+
+    def start(self, seconds, threshold_ms, interval_ms):
+        with self.lock:
+            self.until = time.time() + seconds
+            self.threshold_ms, self.interval = threshold_ms, max(1.0, interval_ms) / 1000
+            self.stacks, self.requests, self.kept = {}, 0, 0
+            if self.sampler is None or not self.sampler.is_alive():
+                self.sampler = threading.Thread(target=self.sample_loop, name="profiler", daemon=True)
+                self.sampler.start()
+
+    def stop(self):
+        with self.lock: self.until = 0.0
+
+    def begin(self, task_type):
+        if time.time() >= self.until: return None
+        samples = {}
+        with self.lock: self.running[threading.get_ident()] = (task_type, samples)
+        return time.perf_counter(), samples
+
+    def end(self, token):
+        elapsed_ms = (time.perf_counter() - token[0]) * 1000
+        with self.lock:
+            self.running.pop(threading.get_ident(), None)
+            self.requests += 1
+            if elapsed_ms < self.threshold_ms: return
+            self.kept += 1
+            for stack, count in token[1].items():
+                self.stacks[stack] = self.stacks.get(stack, 0) + count
+
+    def sample_loop(self):
+        while time.time() < self.until:
+            time.sleep(self.interval)
+            frames = sys._current_frames()
+            with self.lock:
+                for ident, (task_type, samples) in self.running.items():
+                    frame = frames.get(ident)
+                    if frame is None: continue
+                    stack = folded_stack(task_type, frame)
+                    samples[stack] = samples.get(stack, 0) + 1
+
+    # Brendan Gregg's folded format, which flamegraph.pl and speedscope read directly.
+    def dump(self):
+        with self.lock:
+            active = 1 if time.time() < self.until else 0
+            lines = [f"# interval_ms={self.interval * 1000:g} requests={self.requests} kept={self.kept} active={active}"]
+            lines += [f"{stack} {count}" for stack, count in self.stacks.items()]
+        return "\n".join(lines) + "\n"
+
+profiler = TaskProfiler()
+
+def folded_stack(task_type, frame):
+    names = []
+    while frame is not None and frame.f_code not in PROFILE_ROOTS:
+        code = frame.f_code
+        names.append(f"{code.co_name} ({os.path.basename(code.co_filename)}:{code.co_firstlineno})")
+        frame = frame.f_back
+    names.append(task_type)
+    return ";".join(reversed(names))
+
+def handle_profile_task(request_id, raw_metadata):
+    try:
+        _, meta, out_info = parse_input_protocol(request_id, raw_metadata, "PROFILE")
+        op = meta[0].upper() if meta else "DUMP"
+        if op == "START":
+            seconds, threshold_ms = float(meta[1]), float(meta[2])
+            profiler.start(seconds, threshold_ms, float(meta[3]) if len(meta) > 3 else 5.0)
+            result = "STARTED"
+        elif op == "STOP":
+            profiler.stop()
+            result = "STOPPED"
+        elif op == "DUMP":
+            result = profiler.dump()
+        else:
+            return f"ERROR Unknown profile op: {op}"
+        written = write_output_data(request_id, result.encode('utf-8'), out_info)
+        return f"DONE {written}"
+    except Exception as e:
+        return f"ERROR {e}"
+
+def handle_stub_task(task_type, request_id, raw_metadata):
+    try:
+        raw_data, meta, out_info = parse_input_protocol(request_id, raw_metadata, task_type)
+        delay_ms = random.uniform(STUB_LATENCY_MS - STUB_JITTER_MS, STUB_LATENCY_MS + STUB_JITTER_MS)
+        time.sleep(max(0.0, delay_ms) / 1000)
+        output = STUB_OUTPUT
+        if task_type == "YOLO" and "BATCH" in parse_options(meta[3:], YOLO_OPTIONS):
+            output = pack_items([struct.pack("<IIi", 0, 0, TARGET_WIDTH)] * struct.unpack_from("<I", raw_data, 0)[0])
+        written = write_output_data(request_id, output, out_info)
+        return f"DONE {written}"
+    except Exception as e:
+        return f"ERROR {e}"
+
 TASK_HANDLERS = {
     "YOLO": handle_yolo_task,
     "NLP_TEXTBLOB": handle_nlp_task,
+    "NLP_BATCH": handle_nlp_batch_task,
     "REGRESSION": handle_regression_task,
+    "REGRESSION_COLS": handle_regression_columns_task,
     "EDGE_DETECT": handle_edge_task,
     "STATUS": handle_status,
+    "RELOAD_PLUGINS": handle_reload_plugins,
+    "TABLE": handle_table_task,
+    "PLUGINS": handle_plugins,
+    "TRACK": handle_track_task,
+    "PROFILE": handle_profile_task,
 }
 
-def daemon_loop():
-    print("READY", flush=True)
+class Channel:
+    def __init__(self, rfile, wfile):
+        self.rfile = rfile
+        self.wfile = wfile
+        self.send_lock = threading.Lock()
+
+    def read_line(self):
+        line = self.rfile.readline()
+        return line.decode('utf-8') if line else None
+
+    def read_exact(self, size):
+        data = self.rfile.read(size)
+        if len(data) != size: raise EOFError("Connection closed mid-payload")
+        return data
+
+    # One write per frame: stray library output on the same stream can then only land
+    # between frames, never between an inline DONE line and its bytes.
+    def send(self, line, payload=None):
+        frame = (line + "\n").encode('utf-8')
+        if payload: frame += payload
+        with self.send_lock:
+            self.wfile.write(frame)
+            self.wfile.flush()
+
+# Built-in handlers guard their shared state (model, regression sessions) with their own
+# locks, so decode/encode of one request overlaps inference of another. Plugins run
+# exclusively unless they declare THREAD_SAFE = True.
+def run_task(task_type, req_id, metadata):
+    token = profiler.begin(task_type) if task_type not in CONTROL_TASKS else None
+    try:
+        return call_task(task_type, req_id, metadata)
+    finally:
+        if token: profiler.end(token)
+
+def call_task(task_type, req_id, metadata):
+    if STUB and task_type not in CONTROL_TASKS: return handle_stub_task(task_type, req_id, metadata)
+    with REGISTRY_LOCK: handler, thread_safe = TASK_HANDLERS.get(task_type), task_type in THREAD_SAFE_TASKS
+    if not handler: return f"ERROR Unknown task: {task_type}"
+    if thread_safe:
+        return handler(req_id, metadata)
+    with EXECUTION_LOCK:
+        return handler(req_id, metadata)
+
+def run_inline(task_type, req_id, metadata, payload):
+    request_context.inline_input = payload
+    request_context.inline_output = None
+    return finish_inline(run_task(task_type, req_id, metadata))
+
+def run_tagged(channel, task_type, req_id, metadata, payload=None):
+    output = None
+    try:
+        if payload is None: response = run_task(task_type, req_id, metadata)
+        else: response, output = run_inline(task_type, req_id, metadata, payload)
+    except Exception as e:
+        response = f"ERROR {e}"
+    channel.send(f"RESULT {req_id} {response}", output)
+
+def finish_inline(response):
+    if not response.startswith("DONE"): return response, None
+    output = request_context.inline_output
+    if output is None:
+        text = response[4:].strip()
+        output = text.encode('utf-8') if text and not text.isdigit() else b""
+    return f"DONE {len(output)}", output
+
+PROFILE_ROOTS = {run_task.__code__, call_task.__code__}
+
+def serve_channel(channel, pool=None):
+    channel.send("READY")
+    try:
+        read_commands(channel, pool)
+    finally:
+        if pool: pool.shutdown(wait=True)
+
+def read_commands(channel, pool):
     while True:
-        line = sys.stdin.readline()
-        if not line: break
+        line = channel.read_line()
+        if line is None: break
         parts = line.strip().split()
         if not parts: continue
         cmd = parts[0].upper()
         if cmd == "EXIT": break
         if cmd == "EXECUTE" and len(parts) >= 3:
-            task_type, req_id = parts[1].upper(), parts[2]
-            handler = TASK_HANDLERS.get(task_type)
-            if handler: print(handler(req_id, parts[3:]), flush=True)
-            else: print(f"ERROR Unknown task: {task_type}", flush=True)
+            task_type, req_id, metadata = parts[1].upper(), parts[2], parts[3:]
+            payload = channel.read_exact(int(metadata[1])) if len(metadata) > 1 and metadata[0] == "INLINE" else None
+            if pool and (task_type in CHEAP_TASKS or task_type in CONTROL_TASKS):
+                run_tagged(channel, task_type, req_id, metadata, payload)
+            elif pool:
+                pool.submit(run_tagged, channel, task_type, req_id, metadata, payload)
+            elif payload is not None:
+                channel.send(*run_inline(task_type, req_id, metadata, payload))
+            else:
+                channel.send(run_task(task_type, req_id, metadata))
+
+def daemon_loop():
+    sys.stdout.flush()
+    pool = ThreadPoolExecutor(args.concurrency, thread_name_prefix="task") if args.concurrency > 1 else None
+    serve_channel(Channel(sys.stdin.buffer, sys.stdout.buffer), pool)
+
+def serve_connection(conn):
+    with conn, conn.makefile('rb') as rfile, conn.makefile('wb') as wfile:
+        try:
+            serve_channel(Channel(rfile, wfile))
+        except (OSError, EOFError):
+            pass
+
+def listen_loop(address):
+    if address.startswith("unix:"):
+        path = address[len("unix:"):]
+        if os.path.exists(path): os.unlink(path)
+        server = socket.socket(socket.AF_UNIX, socket.SOCK_STREAM)
+        server.bind(path)
+        server.listen()
+    elif address.startswith("tcp://"):
+        host, port = address[len("tcp://"):].rsplit(":", 1)
+        server = socket.create_server((host, int(port)))
+    else:
+        raise SystemExit(f"Unsupported listen address: {address}")
+    print(f"[Worker] Listening on {address}", file=sys.stderr, flush=True)
+    while True:
+        conn, _ = server.accept()
+        if conn.family != getattr(socket, "AF_UNIX", None):
+            conn.setsockopt(socket.IPPROTO_TCP, socket.TCP_NODELAY, 1)
+        threading.Thread(target=serve_connection, args=(conn,), daemon=True).start()
+
+THREAD_ENV_VARS = ("OMP_NUM_THREADS", "MKL_NUM_THREADS", "OPENBLAS_NUM_THREADS", "NUMEXPR_NUM_THREADS", "VECLIB_MAXIMUM_THREADS")
+
+# The template process: imports and model weights are loaded once, then every worker is
+# forked from here and shares those pages copy-on-write. No inference runs before fork,
+# since OpenMP pools and GPU contexts do not survive it; each child warms up on its own.
+def zygote_loop(path):
+    signal.signal(signal.SIGCHLD, signal.SIG_IGN)
+    if os.path.exists(path): os.unlink(path)
+    server = socket.socket(socket.AF_UNIX, socket.SOCK_STREAM)
+    server.bind(path)
+    server.listen()
+    print("READY", flush=True)
+    while True:
+        ready, _, _ = select.select([server, sys.stdin], [], [])
+        if sys.stdin in ready and not os.read(sys.stdin.fileno(), 1024): break
+        if server not in ready: continue
+        conn, _ = server.accept()
+        rfile = conn.makefile('rb')
+        request = rfile.readline().decode('utf-8').split()
+        if len(request) == 5 and request[0] == "FORK" and os.fork() == 0:
+            server.close()
+            run_forked_worker(conn, rfile, request)
+        rfile.close()
+        conn.close()
+    server.close()
+    os.unlink(path)
+
+def run_forked_worker(conn, rfile, request):
+    code = 0
+    try:
+        signal.signal(signal.SIGCHLD, signal.SIG_DFL)
+        os.dup2(2, 1)
+        _, index, cpus, threads, concurrency = request
+        args.worker_index, args.threads, args.concurrency = int(index), int(threads), int(concurrency)
+        args.cpus = "" if cpus == "-" else cpus
+        if args.threads > 0:
+            for var in THREAD_ENV_VARS: os.environ[var] = str(args.threads)
+        with conn, rfile, conn.makefile('wb') as wfile:
+            channel = Channel(rfile, wfile)
+            channel.send(f"PID {os.getpid()}")
+            apply_placement()
+            warm_up_plugins()
+            warm_up()
+            pool = ThreadPoolExecutor(args.concurrency, thread_name_prefix="task") if args.concurrency > 1 else None
+            serve_channel(channel, pool)
+    except (OSError, EOFError):
+        pass
+    except Exception as e:
+        print(f"[Worker {args.worker_index}] Forked worker failed: {e}", file=sys.stderr, flush=True)
+        code = 1
+    finally:
+        os._exit(code)
 
 if __name__ == "__main__":
+    if args.zygote:
+        if DEVICE != 'cpu':
+            raise SystemExit(f"[Zygote] {DEVICE} state cannot be shared across fork; use spawned workers")
+        initialize_models()
+        zygote_loop(args.zygote)
+        sys.exit(0)
+    apply_placement()
     initialize_models()
-    daemon_loop()
+    warm_up()
+    if args.listen: listen_loop(args.listen)
+    else: daemon_loop()
@@ -0,0 +1,15 @@
+import re
+
+TASK_TYPE = "SLUG"
+PURE = True
+THREAD_SAFE = True
+COST = "cheap"
+INPUT_TYPE = "text"
+OUTPUT_TYPE = "text"
+
+def process(text, args):
+    separator = args[0] if args else "-"
+    return re.sub(r"[^a-z0-9]+", separator, text.lower()).strip(separator)
+
+def process_batch(texts, args):
+    return [process(text, args) for text in texts]
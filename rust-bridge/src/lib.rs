@@ -1,30 +1,252 @@
+mod multiplex;
+mod transport;
+#[cfg(unix)]
+mod zygote;
+
 use jni::JNIEnv;
 use jni::JavaVM;
 use jni::objects::{JByteBuffer, JString, JObject};
-use jni::sys::{jint, jbyteArray, jlong};
+use jni::sys::{jint, jbyteArray, jlong, jlongArray};
 use std::fs::File;
 use std::io::{Read, Write, BufRead, BufReader, BufWriter};
+use std::collections::HashMap;
+use std::collections::hash_map::DefaultHasher;
+use std::hash::{Hash, Hasher};
 use std::process::{Command, Child, Stdio, ChildStdin, ChildStdout};
-use std::sync::Mutex;
+use std::sync::{Arc, Mutex, MutexGuard, Weak};
+use std::sync::atomic::{AtomicBool, AtomicU64, AtomicUsize, Ordering};
+use std::time::Duration;
+use multiplex::SharedDaemon;
+use transport::{Endpoint, RemoteWorker};
 
 
 const OUTPUT_SHM_SIZE: usize = 1024 * 1024;
+const SHMEM_TASKS: [&str; 5] = ["YOLO", "EDGE_DETECT", "NLP_BATCH", "REGRESSION_COLS", "TABLE"];
+const THREAD_ENV_VARS: [&str; 5] = [
+    "OMP_NUM_THREADS",
+    "MKL_NUM_THREADS",
+    "OPENBLAS_NUM_THREADS",
+    "NUMEXPR_NUM_THREADS",
+    "VECLIB_MAXIMUM_THREADS",
+];
+const CONNECT_TIMEOUT: Duration = Duration::from_secs(10);
+const DRAIN_TIMEOUT: Duration = Duration::from_secs(5);
+const READY_TIMEOUT: Duration = Duration::from_secs(600);
+const DEFAULT_INLINE_MAX: usize = 16 * 1024;
+const TRANSPORT_INLINE: usize = 0;
+const TRANSPORT_SHMEM: usize = 1;
+const TRANSPORT_FILE: usize = 2;
+
+// A local worker is either our own child process or one forked by the zygote, which we
+// signal by pid but watch through its connection.
+enum WorkerProcess {
+    Spawned(Child),
+    #[cfg(unix)]
+    Forked(zygote::ForkedProcess),
+}
+
+impl WorkerProcess {
+    fn id(&self) -> u32 {
+        match self {
+            WorkerProcess::Spawned(child) => child.id(),
+            #[cfg(unix)]
+            WorkerProcess::Forked(process) => process.id(),
+        }
+    }
+
+    fn is_running(&mut self) -> bool {
+        match self {
+            WorkerProcess::Spawned(child) => matches!(child.try_wait(), Ok(None)),
+            #[cfg(unix)]
+            WorkerProcess::Forked(process) => process.is_running(),
+        }
+    }
+
+    fn kill(&mut self) {
+        match self {
+            WorkerProcess::Spawned(child) => {
+                let _ = child.kill();
+                let _ = child.wait();
+            }
+            #[cfg(unix)]
+            WorkerProcess::Forked(process) => process.terminate(),
+        }
+    }
+}
+
+type WorkerPipes = (WorkerProcess, Box<dyn Write + Send>, Box<dyn BufRead + Send>);
 
 struct PythonDaemon {
-    child: Child,
-    stdin: BufWriter<ChildStdin>,
-    stdout: BufReader<ChildStdout>,
+    process: WorkerProcess,
+    stdin: Box<dyn Write + Send>,
+    stdout: Box<dyn BufRead + Send>,
+}
+
+impl PythonDaemon {
+    // Asks the worker to exit on its own so it can release shared memory and CUDA state;
+    // Drop kills it if it has not gone within the timeout.
+    fn shutdown(mut self, timeout: Duration) {
+        let _ = self.stdin.write_all(b"EXIT\n").and_then(|_| self.stdin.flush());
+        let deadline = std::time::Instant::now() + timeout;
+        while std::time::Instant::now() < deadline {
+            if !self.process.is_running() {
+                return;
+            }
+            std::thread::sleep(Duration::from_millis(50));
+        }
+    }
 }
 
 impl Drop for PythonDaemon {
     fn drop(&mut self) {
-        let _ = self.child.kill();
-        let _ = self.child.wait();
+        self.process.kill();
+    }
+}
+
+enum WorkerLink {
+    Local(PythonDaemon),
+    Shared(Arc<SharedDaemon>),
+    Remote(RemoteWorker),
+}
+
+impl WorkerLink {
+    fn is_alive(&mut self) -> bool {
+        match self {
+            WorkerLink::Local(daemon) => daemon.process.is_running(),
+            WorkerLink::Shared(daemon) => daemon.is_alive(),
+            WorkerLink::Remote(_) => true,
+        }
+    }
+
+    fn rss_kb(&self) -> Option<u64> {
+        match self {
+            WorkerLink::Local(daemon) => process_rss_kb(daemon.process.id()),
+            WorkerLink::Shared(daemon) => daemon.rss_kb(),
+            WorkerLink::Remote(_) => None,
+        }
+    }
+
+    fn shutdown(self) {
+        match self {
+            WorkerLink::Local(daemon) => daemon.shutdown(DRAIN_TIMEOUT),
+            WorkerLink::Shared(daemon) => daemon.shutdown(DRAIN_TIMEOUT),
+            WorkerLink::Remote(_) => {}
+        }
+    }
+}
+
+// How a request reaches its worker: an exclusively held pipe or socket, or a multiplexed
+// pipe where replies are matched by request id. `command_inline` carries the payload and
+// the result in the control stream itself.
+trait CommandChannel {
+    fn command(&mut self, request_id: &str, command: &str) -> Result<String, TaskError>;
+    fn command_inline(&mut self, request_id: &str, command: &str, payload: &[u8]) -> Result<Vec<u8>, TaskError>;
+}
+
+impl CommandChannel for PythonDaemon {
+    fn command(&mut self, _request_id: &str, command: &str) -> Result<String, TaskError> {
+        send_command(self.stdin.as_mut(), self.stdout.as_mut(), command, &[])
+    }
+
+    fn command_inline(&mut self, _request_id: &str, command: &str, payload: &[u8]) -> Result<Vec<u8>, TaskError> {
+        exchange_inline(self.stdin.as_mut(), self.stdout.as_mut(), command, payload)
+    }
+}
+
+impl CommandChannel for Arc<SharedDaemon> {
+    fn command(&mut self, request_id: &str, command: &str) -> Result<String, TaskError> {
+        self.call(request_id, command)
+    }
+
+    fn command_inline(&mut self, request_id: &str, command: &str, payload: &[u8]) -> Result<Vec<u8>, TaskError> {
+        self.call_inline(request_id, command, payload)
+    }
+}
+
+impl CommandChannel for RemoteWorker {
+    fn command(&mut self, _request_id: &str, command: &str) -> Result<String, TaskError> {
+        send_command(self.writer.as_mut(), self.reader.as_mut(), command, &[])
+    }
+
+    fn command_inline(&mut self, _request_id: &str, command: &str, payload: &[u8]) -> Result<Vec<u8>, TaskError> {
+        exchange_inline(self.writer.as_mut(), self.reader.as_mut(), command, payload)
+    }
+}
+
+enum WorkerTarget {
+    Local,
+    Remote(Endpoint),
+}
+
+struct WorkerSlot {
+    index: usize,
+    target: WorkerTarget,
+    link: Mutex<Option<WorkerLink>>,
+    served: AtomicU64,
+    recycling: AtomicBool,
+}
+
+impl WorkerSlot {
+    fn new(index: usize, target: WorkerTarget) -> Self {
+        WorkerSlot { index, target, link: Mutex::new(None), served: AtomicU64::new(0), recycling: AtomicBool::new(false) }
     }
 }
 
+struct RecyclePolicy {
+    max_rss_kb: Option<u64>,
+    max_requests: Option<u64>,
+}
+
+impl RecyclePolicy {
+    fn from_options(options: &HashMap<String, String>) -> Self {
+        let positive = |key: &str| options.get(key).and_then(|v| v.parse::<u64>().ok()).filter(|v| *v > 0);
+        RecyclePolicy {
+            max_rss_kb: positive("recycle.max_rss_mb").map(|mb| mb * 1024),
+            max_requests: positive("recycle.max_requests"),
+        }
+    }
+
+    fn is_enabled(&self) -> bool {
+        self.max_rss_kb.is_some() || self.max_requests.is_some()
+    }
+}
+
+#[cfg(target_os = "linux")]
+fn process_rss_kb(pid: u32) -> Option<u64> {
+    let status = std::fs::read_to_string(format!("/proc/{}/status", pid)).ok()?;
+    let line = status.lines().find(|l| l.starts_with("VmRSS:"))?;
+    line.split_whitespace().nth(1)?.parse().ok()
+}
+
+#[cfg(not(target_os = "linux"))]
+fn process_rss_kb(_pid: u32) -> Option<u64> {
+    None
+}
+
+// Worker-reported failures leave the link usable; link failures drop it so the next
+// request respawns or reconnects.
+enum TaskError {
+    Worker(String),
+    Link(String),
+}
+
+fn link_error(e: std::io::Error) -> TaskError {
+    TaskError::Link(e.to_string())
+}
+
 struct BridgeState {
-    daemon: Mutex<Option<PythonDaemon>>,
+    self_ref: Weak<BridgeState>,
+    workers: Vec<WorkerSlot>,
+    next_worker: AtomicUsize,
+    options: HashMap<String, String>,
+    recycle: RecyclePolicy,
+    model: Mutex<(String, f32)>,
+    inline_max: usize,
+    transport_counts: [AtomicU64; 3],
+    #[cfg(unix)]
+    zygote: Mutex<Option<zygote::Zygote>>,
+    #[cfg(unix)]
+    zygote_failed: AtomicBool,
     work_dir: String,
     session_key: String,
     instance_id: String,
@@ -32,7 +254,18 @@ struct BridgeState {
     bridge_obj: jni::objects::GlobalRef,
 }
 
+fn parse_options(raw: &str) -> HashMap<String, String> {
+    raw.lines()
+        .filter_map(|line| line.split_once('='))
+        .map(|(k, v)| (k.trim().to_string(), v.trim().to_string()))
+        .collect()
+}
+
 impl BridgeState {
+    fn option(&self, key: &str) -> Option<&str> {
+        self.options.get(key).map(|v| v.as_str())
+    }
+
     fn log_to_java(&self, level: &str, msg: &str) {
         let mut env = match self.java_vm.attach_current_thread_as_daemon() {
             Ok(e) => e,
@@ -92,7 +325,11 @@ impl BridgeState {
         "python3".to_string()
     }
 
-    fn spawn_python_daemon(&self) -> Result<PythonDaemon, String> {
+    fn concurrency(&self) -> usize {
+        self.option("worker.concurrency").and_then(|v| v.parse().ok()).unwrap_or(1)
+    }
+
+    fn python_command(&self, model: &(String, f32)) -> Command {
         let python_exe = self.find_python_executable();
         let script_path = format!("{}/ai_worker.py", self.work_dir);
 
@@ -102,7 +339,79 @@ impl BridgeState {
         child_cmd.arg("--instance-id").arg(&self.instance_id);
         child_cmd.env("PYTHONIOENCODING", "utf-8");
         child_cmd.env("PYTHONPATH", &self.work_dir);
+        child_cmd.arg("--model").arg(&model.0);
+        child_cmd.arg("--conf").arg(model.1.to_string());
+        if let Some(runs) = self.option("warmup") {
+            child_cmd.arg("--warmup").arg(runs);
+        }
+        child_cmd
+    }
+
+    fn launch_worker(&self, index: usize) -> Result<WorkerPipes, String> {
+        #[cfg(unix)]
+        {
+            if self.option("zygote") == Some("true") && !self.zygote_failed.load(Ordering::Acquire) {
+                match self.fork_worker(index) {
+                    Ok(pipes) => return Ok(pipes),
+                    Err(e) => self.log_to_java("WARN", &format!("Worker {} fork failed, spawning instead: {}", index, e)),
+                }
+            }
+        }
+        let (child, stdin, stdout) = self.spawn_python_daemon(index)?;
+        Ok((WorkerProcess::Spawned(child), Box::new(stdin), Box::new(stdout)))
+    }
 
+    // The zygote is (re)started lazily and whenever the model changed since it loaded; the
+    // lock is only held for the fork request, not for the child's warm-up. A zygote that
+    // cannot start (e.g. on a GPU host) is not retried until the next reload.
+    #[cfg(unix)]
+    fn fork_worker(&self, index: usize) -> Result<WorkerPipes, String> {
+        let stream = {
+            let mut zygote = self.zygote.lock().unwrap();
+            let model = self.model.lock().unwrap().clone();
+            let stale = match zygote.as_mut() {
+                Some(z) => z.model != model || !z.is_alive(),
+                None => true,
+            };
+            if stale {
+                *zygote = None;
+                let socket_path = format!("{}/zygote-{}.sock", self.work_dir, self.session_key);
+                let mut child_cmd = self.python_command(&model);
+                child_cmd.arg("--zygote").arg(&socket_path);
+                let (child, stdin, stdout) = self.start_python(child_cmd).map_err(|e| {
+                    self.zygote_failed.store(true, Ordering::Release);
+                    e
+                })?;
+                *zygote = Some(zygote::Zygote::new(child, stdin, stdout, socket_path, model));
+            }
+            let cpus = self.option(&format!("worker.{}.cpus", index)).unwrap_or("-");
+            let threads = self.option(&format!("worker.{}.threads", index)).unwrap_or("0");
+            zygote.as_ref().unwrap().fork(index, cpus, threads, self.concurrency())?
+        };
+        let worker = zygote::await_worker(stream, READY_TIMEOUT)?;
+        Ok((WorkerProcess::Forked(worker.process), worker.writer, worker.reader))
+    }
+
+    fn spawn_python_daemon(&self, index: usize) -> Result<(Child, BufWriter<ChildStdin>, BufReader<ChildStdout>), String> {
+        let model = self.model.lock().unwrap().clone();
+        let mut child_cmd = self.python_command(&model);
+        child_cmd.arg("--worker-index").arg(index.to_string());
+        if self.concurrency() > 1 {
+            child_cmd.arg("--concurrency").arg(self.concurrency().to_string());
+        }
+        if let Some(cpus) = self.option(&format!("worker.{}.cpus", index)) {
+            child_cmd.arg("--cpus").arg(cpus);
+        }
+        if let Some(threads) = self.option(&format!("worker.{}.threads", index)) {
+            child_cmd.arg("--threads").arg(threads);
+            for var in THREAD_ENV_VARS {
+                child_cmd.env(var, threads);
+            }
+        }
+        self.start_python(child_cmd)
+    }
+
+    fn start_python(&self, mut child_cmd: Command) -> Result<(Child, BufWriter<ChildStdin>, BufReader<ChildStdout>), String> {
         let mut child = child_cmd
             .stdin(Stdio::piped())
             .stdout(Stdio::piped())
@@ -118,7 +427,7 @@ impl BridgeState {
 
         let mut ready_line = String::new();
         let timeout_start = std::time::Instant::now();
-        let timeout_duration = std::time::Duration::from_secs(600);
+        let timeout_duration = READY_TIMEOUT;
 
         loop {
             if timeout_start.elapsed() > timeout_duration {
@@ -143,48 +452,341 @@ impl BridgeState {
             }
         }
 
-        Ok(PythonDaemon {
-            child,
-            stdin: stdin_writer,
-            stdout: stdout_reader,
-        })
+        Ok((child, stdin_writer, stdout_reader))
+    }
+
+    fn open_link(&self, slot: &WorkerSlot) -> Result<WorkerLink, String> {
+        match &slot.target {
+            WorkerTarget::Local => {
+                let (process, stdin, stdout) = self.launch_worker(slot.index)?;
+                if self.concurrency() > 1 {
+                    Ok(WorkerLink::Shared(Arc::new(SharedDaemon::new(process, stdin, stdout))))
+                } else {
+                    Ok(WorkerLink::Local(PythonDaemon { process, stdin, stdout }))
+                }
+            }
+            WorkerTarget::Remote(endpoint) => transport::connect(endpoint, CONNECT_TIMEOUT).map(WorkerLink::Remote),
+        }
     }
 
-    fn get_or_spawn_daemon(&self) -> Result<(), String> {
-        let mut daemon_guard = self.daemon.lock().unwrap();
-        if let Some(ref mut daemon) = *daemon_guard {
-            match daemon.child.try_wait() {
-                Ok(Some(_)) => {}
-                Ok(None) => return Ok(()),
-                Err(_) => {}
+    fn ensure_link(&self, slot: &WorkerSlot, link: &mut Option<WorkerLink>) -> Result<(), String> {
+        if let Some(ref mut existing) = *link {
+            if existing.is_alive() {
+                return Ok(());
             }
         }
-        let daemon = self.spawn_python_daemon()?;
-        *daemon_guard = Some(daemon);
+        *link = Some(self.open_link(slot)?);
         Ok(())
     }
 
-    fn send_execute_command(&self, task_type: &str, request_id: &str, metadata: &str) -> Result<String, String> {
-        let mut daemon_guard = self.daemon.lock().unwrap();
-        let daemon = daemon_guard.as_mut().ok_or("Python daemon not initialized")?;
+    fn start_workers(&self) -> usize {
+        let mut started = 0;
+        for slot in &self.workers {
+            let mut link_guard = slot.link.lock().unwrap();
+            match self.ensure_link(slot, &mut link_guard) {
+                Ok(()) => started += 1,
+                Err(e) => self.log_to_java("ERROR", &format!("Worker {} start failed: {}", slot.index, e)),
+            }
+        }
+        started
+    }
+
+    fn acquire_worker(&self) -> (&WorkerSlot, MutexGuard<'_, Option<WorkerLink>>) {
+        let count = self.workers.len();
+        let start = self.next_worker.fetch_add(1, Ordering::Relaxed);
+        for offset in 0..count {
+            let slot = &self.workers[(start + offset) % count];
+            if let Ok(guard) = slot.link.try_lock() {
+                return (slot, guard);
+            }
+        }
+        let slot = &self.workers[start % count];
+        (slot, slot.link.lock().unwrap())
+    }
 
-        let command = format!("EXECUTE {} {} {}\n", task_type, request_id, metadata);
-        daemon.stdin.write_all(command.as_bytes()).map_err(|e| e.to_string())?;
-        daemon.stdin.flush().map_err(|e| e.to_string())?;
+    fn execute(&self, task_type: &str, request_id: &str, metadata: &str, data: &[u8]) -> Result<Vec<u8>, String> {
+        let (slot, link_guard) = self.acquire_worker();
+        self.execute_on(slot, link_guard, task_type, request_id, metadata, data)
+    }
 
-        let mut response = String::new();
-        loop {
-            response.clear();
-            match daemon.stdout.read_line(&mut response) {
-                Ok(0) => return Err("Python daemon closed".to_string()),
-                Ok(_) => {
-                    let trimmed = response.trim();
-                    if trimmed.starts_with("DONE") { return Ok(trimmed.to_string()); }
-                    else if trimmed.starts_with("ERROR") { return Err(trimmed.to_string()); }
+    // Requests that share a key always go to the same worker, so per-stream state kept in
+    // the worker (trackers) sees every frame of its stream. Waits for that worker if busy.
+    fn execute_pinned(&self, key: &str, task_type: &str, request_id: &str, metadata: &str, data: &[u8]) -> Result<Vec<u8>, String> {
+        let mut hasher = DefaultHasher::new();
+        key.hash(&mut hasher);
+        let slot = &self.workers[(hasher.finish() % self.workers.len() as u64) as usize];
+        self.execute_on(slot, slot.link.lock().unwrap(), task_type, request_id, metadata, data)
+    }
+
+    fn broadcast(&self, task_type: &str, request_id: &str, metadata: &str) -> usize {
+        self.workers.iter()
+            .filter(|slot| {
+                let link_guard = slot.link.lock().unwrap();
+                let slot_request_id = format!("{}_{}", request_id, slot.index);
+                self.execute_on(slot, link_guard, task_type, &slot_request_id, metadata, &[]).is_ok()
+            })
+            .count()
+    }
+
+    // Like broadcast, but keeps each worker's answer: u32 LE length + bytes per responding worker.
+    fn gather(&self, task_type: &str, request_id: &str, metadata: &str) -> Vec<u8> {
+        let mut gathered = Vec::new();
+        for slot in &self.workers {
+            let link_guard = slot.link.lock().unwrap();
+            let slot_request_id = format!("{}_{}", request_id, slot.index);
+            if let Ok(output) = self.execute_on(slot, link_guard, task_type, &slot_request_id, metadata, &[]) {
+                gathered.extend_from_slice(&(output.len() as u32).to_le_bytes());
+                gathered.extend_from_slice(&output);
+            }
+        }
+        gathered
+    }
+
+    fn execute_on(&self, slot: &WorkerSlot, mut link_guard: MutexGuard<'_, Option<WorkerLink>>,
+                  task_type: &str, request_id: &str, metadata: &str, data: &[u8]) -> Result<Vec<u8>, String> {
+        self.ensure_link(slot, &mut link_guard)?;
+
+        let result = match link_guard.as_mut() {
+            Some(WorkerLink::Local(daemon)) => self.execute_local(daemon, task_type, request_id, metadata, data),
+            Some(WorkerLink::Remote(remote)) => self.execute_inline(remote, task_type, request_id, metadata, data),
+            Some(WorkerLink::Shared(shared)) => {
+                let mut shared = shared.clone();
+                drop(link_guard);
+                return self.execute_shared(slot, &mut shared, task_type, request_id, metadata, data);
+            }
+            None => return Err("Python daemon not initialized".to_string()),
+        };
+
+        if let Err(TaskError::Link(_)) = result {
+            *link_guard = None;
+            slot.served.store(0, Ordering::Relaxed);
+        }
+        let rss_kb = if self.recycle.is_enabled() { link_guard.as_ref().and_then(|l| l.rss_kb()) } else { None };
+        drop(link_guard);
+        self.complete(slot, result, rss_kb)
+    }
+
+    // The slot lock is released before the request is sent, so other callers can pick the
+    // same worker while this one waits for its tagged reply.
+    fn execute_shared(&self, slot: &WorkerSlot, shared: &mut Arc<SharedDaemon>,
+                      task_type: &str, request_id: &str, metadata: &str, data: &[u8]) -> Result<Vec<u8>, String> {
+        let result = self.execute_local(shared, task_type, request_id, metadata, data);
+        if let Err(TaskError::Link(_)) = result {
+            let mut link_guard = slot.link.lock().unwrap();
+            if matches!(&*link_guard, Some(WorkerLink::Shared(current)) if Arc::ptr_eq(current, shared)) {
+                *link_guard = None;
+                slot.served.store(0, Ordering::Relaxed);
+            }
+        }
+        let rss_kb = if self.recycle.is_enabled() { shared.rss_kb() } else { None };
+        self.complete(slot, result, rss_kb)
+    }
+
+    fn complete(&self, slot: &WorkerSlot, result: Result<Vec<u8>, TaskError>, rss_kb: Option<u64>) -> Result<Vec<u8>, String> {
+        match result {
+            Ok(output) => {
+                let served = slot.served.fetch_add(1, Ordering::Relaxed) + 1;
+                if self.recycle.is_enabled() {
+                    self.check_recycle(slot, served, rss_kb);
                 }
-                Err(e) => return Err(e.to_string()),
+                Ok(output)
+            }
+            Err(TaskError::Worker(msg)) | Err(TaskError::Link(msg)) => Err(msg),
+        }
+    }
+
+    // Small payloads ride inside the control frame: for them a shared-memory segment or a
+    // pair of temp files costs far more than the bytes themselves.
+    fn execute_local(&self, channel: &mut dyn CommandChannel, task_type: &str, request_id: &str, metadata: &str, data: &[u8]) -> Result<Vec<u8>, TaskError> {
+        if data.len() <= self.inline_max {
+            self.execute_inline(channel, task_type, request_id, metadata, data)
+        } else if SHMEM_TASKS.contains(&task_type) {
+            self.execute_shmem(channel, task_type, request_id, metadata, data)
+        } else {
+            self.execute_file(channel, task_type, request_id, metadata, data)
+        }
+    }
+
+    fn check_recycle(&self, slot: &WorkerSlot, served: u64, rss_kb: Option<u64>) {
+        if !matches!(slot.target, WorkerTarget::Local) {
+            return;
+        }
+        let over_requests = self.recycle.max_requests.map_or(false, |max| served >= max);
+        let over_memory = matches!((self.recycle.max_rss_kb, rss_kb), (Some(max), Some(rss)) if rss >= max);
+        if !over_requests && !over_memory {
+            return;
+        }
+        if slot.recycling.swap(true, Ordering::AcqRel) {
+            return;
+        }
+        let state = match self.self_ref.upgrade() {
+            Some(s) => s,
+            None => return,
+        };
+        let index = slot.index;
+        self.log_to_java("INFO", &format!("Recycling worker {} (served={}, rss={}KB)", index, served, rss_kb.unwrap_or(0)));
+        std::thread::spawn(move || state.recycle_worker(index));
+    }
+
+    // The old process keeps serving while its replacement loads; the swap happens under the
+    // slot lock, so it only ever retires an idle worker.
+    fn recycle_worker(&self, index: usize) {
+        let slot = &self.workers[index];
+        if let Err(e) = self.replace_worker(slot) {
+            self.log_to_java("ERROR", &format!("Worker {} replacement failed: {}", index, e));
+        }
+        slot.recycling.store(false, Ordering::Release);
+    }
+
+    fn replace_worker(&self, slot: &WorkerSlot) -> Result<(), String> {
+        let replacement = self.open_link(slot)?;
+        let old = {
+            let mut link_guard = slot.link.lock().unwrap();
+            slot.served.store(0, Ordering::Relaxed);
+            link_guard.replace(replacement)
+        };
+        if let Some(old) = old {
+            old.shutdown();
+        }
+        Ok(())
+    }
+
+    // Rolling reload: one local worker at a time, so the pool never loses more than one
+    // slot of capacity and a failed replacement leaves the old worker serving.
+    fn reload(&self, model_path: String, confidence: f32) -> usize {
+        *self.model.lock().unwrap() = (model_path, confidence);
+        #[cfg(unix)]
+        {
+            *self.zygote.lock().unwrap() = None;
+            self.zygote_failed.store(false, Ordering::Release);
+        }
+        let mut failures = 0;
+        for slot in self.workers.iter().filter(|s| matches!(s.target, WorkerTarget::Local)) {
+            while slot.recycling.swap(true, Ordering::AcqRel) {
+                std::thread::sleep(Duration::from_millis(50));
+            }
+            if let Err(e) = self.replace_worker(slot) {
+                self.log_to_java("ERROR", &format!("Worker {} reload failed: {}", slot.index, e));
+                failures += 1;
+            }
+            slot.recycling.store(false, Ordering::Release);
+        }
+        failures
+    }
+
+    fn execute_shmem(&self, channel: &mut dyn CommandChannel, task_type: &str, request_id: &str, metadata: &str, data: &[u8]) -> Result<Vec<u8>, TaskError> {
+        let length = data.len();
+        let short_id = &request_id[..6.min(request_id.len())];
+
+        let shm_name_in = format!("{}_{}", self.session_key, short_id);
+        let mut shm_in = match create_shmem_permissive(&shm_name_in, length) {
+            Ok(m) => m,
+            Err(e) => {
+                eprintln!("[JPyRust-Native] SHMEM-IN creation failed: {}", e);
+                return self.execute_file(channel, task_type, request_id, metadata, data);
+            }
+        };
+
+        unsafe { shm_in.as_slice_mut()[..length].copy_from_slice(data); }
+
+        let shm_name_out = format!("{}_out_{}", self.session_key, short_id);
+        let shm_out = match create_shmem_permissive(&shm_name_out, OUTPUT_SHM_SIZE) {
+            Ok(m) => m,
+            Err(e) => {
+                eprintln!("[JPyRust-Native] SHMEM-OUT creation failed: {}", e);
+                return self.execute_file(channel, task_type, request_id, metadata, data);
+            }
+        };
+
+        self.transport_counts[TRANSPORT_SHMEM].fetch_add(1, Ordering::Relaxed);
+        eprintln!("[JPyRust-Native] [IPC] Mode: SHMEM | Task: {} | ReqID: {}", task_type, request_id);
+        self.log_to_java("INFO", &format!("[IPC] Mode: SHMEM | Task: {} | ReqID: {}", task_type, short_id));
+        let shmem_metadata = format!("SHMEM {} {} {} {} {}", shm_name_in, length, shm_name_out, OUTPUT_SHM_SIZE, metadata);
+
+        let result = channel.command(request_id, &format!("EXECUTE {} {} {}\n", task_type, request_id, shmem_metadata))?;
+        let result_len = inline_result_len(&result);
+
+        // Results too large for the output segment come back through the output file.
+        if result_len > OUTPUT_SHM_SIZE {
+            let output_file = format!("{}/output_{}.dat", self.work_dir, request_id);
+            let output = read_data_file(&output_file).map_err(|e| TaskError::Worker(e.to_string()));
+            let _ = std::fs::remove_file(&output_file);
+            output
+        } else if result_len > 0 {
+            Ok(unsafe { shm_out.as_slice()[..result_len].to_vec() })
+        } else {
+            Ok(Vec::new())
+        }
+    }
+
+    fn execute_file(&self, channel: &mut dyn CommandChannel, task_type: &str, request_id: &str, metadata: &str, data: &[u8]) -> Result<Vec<u8>, TaskError> {
+        self.transport_counts[TRANSPORT_FILE].fetch_add(1, Ordering::Relaxed);
+        eprintln!("[JPyRust-Native] [IPC] Mode: FILE-FALLBACK | Task: {} | ReqID: {}", task_type, request_id);
+        self.log_to_java("WARN", &format!("[IPC] Mode: FILE-FALLBACK | Task: {} | ReqID: {}", task_type, &request_id[..8.min(request_id.len())]));
+        let input_file = format!("{}/input_{}.dat", self.work_dir, request_id);
+        let output_file = format!("{}/output_{}.dat", self.work_dir, request_id);
+
+        write_data_file(&input_file, data).map_err(|e| TaskError::Worker(e.to_string()))?;
+
+        let result = channel.command(request_id, &format!("EXECUTE {} {} {}\n", task_type, request_id, metadata))
+            .and_then(|_| read_data_file(&output_file).map_err(|e| TaskError::Worker(e.to_string())));
+
+        cleanup_files(&input_file, &output_file);
+        result
+    }
+
+    fn execute_inline(&self, channel: &mut dyn CommandChannel, task_type: &str, request_id: &str, metadata: &str, data: &[u8]) -> Result<Vec<u8>, TaskError> {
+        self.transport_counts[TRANSPORT_INLINE].fetch_add(1, Ordering::Relaxed);
+        let command = format!("EXECUTE {} {} INLINE {} {}\n", task_type, request_id, data.len(), metadata);
+        channel.command_inline(request_id, &command, data)
+    }
+}
+
+fn inline_result_len(response: &str) -> usize {
+    response.strip_prefix("DONE ").and_then(|n| n.trim().parse().ok()).unwrap_or(0)
+}
+
+fn exchange_inline(writer: &mut dyn Write, reader: &mut dyn BufRead, command: &str, payload: &[u8]) -> Result<Vec<u8>, TaskError> {
+    let response = send_command(writer, reader, command, payload)?;
+    read_inline_result(reader, inline_result_len(&response))
+}
+
+fn send_command(writer: &mut dyn Write, reader: &mut dyn BufRead, command: &str, payload: &[u8]) -> Result<String, TaskError> {
+    writer.write_all(command.as_bytes()).map_err(link_error)?;
+    if !payload.is_empty() {
+        writer.write_all(payload).map_err(link_error)?;
+    }
+    writer.flush().map_err(link_error)?;
+
+    let mut response = String::new();
+    loop {
+        response.clear();
+        match reader.read_line(&mut response) {
+            Ok(0) => return Err(TaskError::Link("Python daemon closed".to_string())),
+            Ok(_) => {
+                let trimmed = response.trim();
+                if trimmed.starts_with("DONE") { return Ok(trimmed.to_string()); }
+                else if trimmed.starts_with("ERROR") { return Err(TaskError::Worker(trimmed.to_string())); }
             }
+            Err(e) => return Err(link_error(e)),
+        }
+    }
+}
+
+fn read_inline_result(reader: &mut dyn BufRead, len: usize) -> Result<Vec<u8>, TaskError> {
+    let mut output = vec![0u8; len];
+    reader.read_exact(&mut output).map_err(link_error)?;
+    Ok(output)
+}
+
+fn to_java_byte_array(env: &mut JNIEnv, data: &[u8]) -> jbyteArray {
+    match env.new_byte_array(data.len() as i32) {
+        Ok(arr) => {
+            let signed: Vec<i8> = data.iter().map(|&b| b as i8).collect();
+            env.set_byte_array_region(&arr, 0, &signed).unwrap();
+            arr.into_raw()
         }
+        Err(_) => std::ptr::null_mut()
     }
 }
 
@@ -199,21 +801,60 @@ pub extern "system" fn Java_com_jpyrust_JPyRustBridge_initNative<'local>(
     obj: JObject<'local>,
     work_dir: JString<'local>,
     _source_script_dir: JString<'local>,
-    _model_path: JString<'local>,
-    _confidence: jni::sys::jfloat,
+    model_path: JString<'local>,
+    confidence: jni::sys::jfloat,
     memory_key: JString<'local>,
-) {
+) -> jint {
     let work_dir_str: String = env.get_string(&work_dir).unwrap().into();
     let memory_key_str: String = env.get_string(&memory_key).unwrap().into();
+    let model_path_str: String = env.get_string(&model_path).unwrap().into();
     let instance_id_obj = env.get_field(&obj, "instanceId", "Ljava/lang/String;").unwrap().l().unwrap();
     let instance_id: JString = instance_id_obj.into();
     let instance_id_str: String = env.get_string(&instance_id).unwrap().into();
 
+    let options_str: String = match env.get_field(&obj, "nativeOptions", "Ljava/lang/String;").and_then(|v| v.l()) {
+        Ok(o) if !o.is_null() => env.get_string(&JString::from(o)).map(|s| s.into()).unwrap_or_default(),
+        _ => String::new(),
+    };
+    let options = parse_options(&options_str);
+    let local_workers = options.get("workers").and_then(|v| v.parse::<usize>().ok()).unwrap_or(1);
+
+    let mut workers: Vec<WorkerSlot> = (0..local_workers)
+        .map(|index| WorkerSlot::new(index, WorkerTarget::Local))
+        .collect();
+    if let Some(spec) = options.get("endpoints") {
+        match transport::expand_endpoints(spec) {
+            Ok(endpoints) => {
+                for endpoint in endpoints {
+                    let index = workers.len();
+                    workers.push(WorkerSlot::new(index, WorkerTarget::Remote(endpoint)));
+                }
+            }
+            Err(e) => eprintln!("[JPyRust-Native] Ignoring endpoints: {}", e),
+        }
+    }
+    if workers.is_empty() {
+        workers.push(WorkerSlot::new(0, WorkerTarget::Local));
+    }
+
     let vm = env.get_java_vm().unwrap();
     let global_obj = env.new_global_ref(&obj).unwrap();
 
-    let state = Box::new(BridgeState {
-        daemon: Mutex::new(None),
+    let recycle = RecyclePolicy::from_options(&options);
+    let inline_max = options.get("inline.max_bytes").and_then(|v| v.parse::<usize>().ok()).unwrap_or(DEFAULT_INLINE_MAX);
+    let state = Arc::new_cyclic(|self_ref| BridgeState {
+        self_ref: self_ref.clone(),
+        workers,
+        next_worker: AtomicUsize::new(0),
+        options,
+        recycle,
+        model: Mutex::new((model_path_str, confidence)),
+        inline_max,
+        transport_counts: Default::default(),
+        #[cfg(unix)]
+        zygote: Mutex::new(None),
+        #[cfg(unix)]
+        zygote_failed: AtomicBool::new(false),
         work_dir: work_dir_str,
         session_key: memory_key_str,
         instance_id: instance_id_str,
@@ -221,13 +862,11 @@ pub extern "system" fn Java_com_jpyrust_JPyRustBridge_initNative<'local>(
         bridge_obj: global_obj,
     });
 
-    let state_ptr = Box::into_raw(state) as jlong;
+    let state_ptr = Arc::into_raw(state) as jlong;
     env.set_field(&obj, "nativePtr", "J", jni::objects::JValue::Long(state_ptr)).unwrap();
 
     let state = unsafe { &*(state_ptr as *const BridgeState) };
-    if let Err(e) = state.get_or_spawn_daemon() {
-        state.log_to_java("ERROR", &format!("Daemon start failed: {}", e));
-    }
+    state.start_workers() as jint
 }
 
 #[no_mangle]
@@ -251,101 +890,93 @@ pub extern "system" fn Java_com_jpyrust_JPyRustBridge_executeTask<'local>(
     let buffer_ptr = env.get_direct_buffer_address(&input_data).unwrap();
     let data = unsafe { std::slice::from_raw_parts(buffer_ptr, length) };
 
-    if !["YOLO", "EDGE_DETECT"].contains(&task_type_str.as_str()) {
-        return execute_with_file_fallback(&mut env, state, &task_type_str, &request_id_str, &metadata_str, data);
+    match state.execute(&task_type_str, &request_id_str, &metadata_str, data) {
+        Ok(output) => to_java_byte_array(&mut env, &output),
+        Err(_) => std::ptr::null_mut(),
     }
+}
 
-    let shm_name_in = format!("{}_{}", state.session_key, &request_id_str[..6.min(request_id_str.len())]);
-    let mut shm_in = match create_shmem_permissive(&shm_name_in, length) {
-        Ok(m) => m,
-        Err(e) => {
-            eprintln!("[JPyRust-Native] SHMEM-IN creation failed: {}", e);
-            return execute_with_file_fallback(&mut env, state, &task_type_str, &request_id_str, &metadata_str, data);
-        }
-    };
-
-    unsafe { shm_in.as_slice_mut()[..length].copy_from_slice(data); }
-
-    let shm_name_out = format!("{}_out_{}", state.session_key, &request_id_str[..6.min(request_id_str.len())]);
-    let shm_out = match create_shmem_permissive(&shm_name_out, OUTPUT_SHM_SIZE) {
-        Ok(m) => m,
-        Err(e) => {
-            eprintln!("[JPyRust-Native] SHMEM-OUT creation failed: {}", e);
-            return execute_with_file_fallback(&mut env, state, &task_type_str, &request_id_str, &metadata_str, data);
-        }
-    };
+#[no_mangle]
+pub extern "system" fn Java_com_jpyrust_JPyRustBridge_executePinned<'local>(
+    mut env: JNIEnv<'local>,
+    obj: JObject<'local>,
+    task_type: JString<'local>,
+    request_id: JString<'local>,
+    metadata: JString<'local>,
+    input_data: JByteBuffer<'local>,
+    input_length: jint,
+    key: JString<'local>,
+) -> jbyteArray {
+    let state = unsafe { get_state(&mut env, &obj) };
 
-    eprintln!("[JPyRust-Native] [IPC] Mode: SHMEM | Task: {} | ReqID: {}", task_type_str, request_id_str);
-    state.log_to_java("INFO", &format!("[IPC] Mode: SHMEM | Task: {} | ReqID: {}", task_type_str, &request_id_str[..6.min(request_id_str.len())]));
-    let shmem_metadata = format!("SHMEM {} {} {} {} {}", shm_name_in, length, shm_name_out, OUTPUT_SHM_SIZE, metadata_str);
+    let task_type_str: String = env.get_string(&task_type).unwrap().into();
+    let request_id_str: String = env.get_string(&request_id).unwrap().into();
+    let metadata_str: String = env.get_string(&metadata).unwrap().into();
+    let key_str: String = env.get_string(&key).unwrap().into();
 
-    let mut final_result_len = 0;
-    if let Err(_) = state.get_or_spawn_daemon() { return std::ptr::null_mut(); }
+    let length = input_length as usize;
+    let buffer_ptr = env.get_direct_buffer_address(&input_data).unwrap();
+    let data = unsafe { std::slice::from_raw_parts(buffer_ptr, length) };
 
-    match state.send_execute_command(&task_type_str, &request_id_str, &shmem_metadata) {
-        Ok(result) => {
-            if let Some(len_str) = result.strip_prefix("DONE ") {
-                final_result_len = len_str.trim().parse().unwrap_or(0);
-            }
-        }
-        Err(_) => return std::ptr::null_mut(),
+    match state.execute_pinned(&key_str, &task_type_str, &request_id_str, &metadata_str, data) {
+        Ok(output) => to_java_byte_array(&mut env, &output),
+        Err(_) => std::ptr::null_mut(),
     }
+}
 
-    let output_data = if final_result_len > 0 && final_result_len <= OUTPUT_SHM_SIZE {
-        unsafe { shm_out.as_slice()[..final_result_len].to_vec() }
-    } else {
-        Vec::new()
-    };
-
-    match env.new_byte_array(output_data.len() as i32) {
-        Ok(arr) => {
-            let signed: Vec<i8> = output_data.iter().map(|&b| b as i8).collect();
-            env.set_byte_array_region(&arr, 0, &signed).unwrap();
-            arr.into_raw()
-        }
-        Err(_) => std::ptr::null_mut()
-    }
+#[no_mangle]
+pub extern "system" fn Java_com_jpyrust_JPyRustBridge_broadcastTask<'local>(
+    mut env: JNIEnv<'local>,
+    obj: JObject<'local>,
+    task_type: JString<'local>,
+    request_id: JString<'local>,
+    metadata: JString<'local>,
+) -> jint {
+    let state = unsafe { get_state(&mut env, &obj) };
+    let task_type_str: String = env.get_string(&task_type).unwrap().into();
+    let request_id_str: String = env.get_string(&request_id).unwrap().into();
+    let metadata_str: String = env.get_string(&metadata).unwrap().into();
+    state.broadcast(&task_type_str, &request_id_str, &metadata_str) as jint
 }
 
-fn execute_with_file_fallback(
-    env: &mut JNIEnv,
-    state: &BridgeState,
-    task_type: &str,
-    request_id: &str,
-    metadata: &str,
-    data: &[u8],
+#[no_mangle]
+pub extern "system" fn Java_com_jpyrust_JPyRustBridge_gatherTask<'local>(
+    mut env: JNIEnv<'local>,
+    obj: JObject<'local>,
+    task_type: JString<'local>,
+    request_id: JString<'local>,
+    metadata: JString<'local>,
 ) -> jbyteArray {
-    eprintln!("[JPyRust-Native] [IPC] Mode: FILE-FALLBACK | Task: {} | ReqID: {}", task_type, request_id);
-    state.log_to_java("WARN", &format!("[IPC] Mode: FILE-FALLBACK | Task: {} | ReqID: {}", task_type, &request_id[..8.min(request_id.len())]));
-    let input_file = format!("{}/input_{}.dat", state.work_dir, request_id);
-    let output_file = format!("{}/output_{}.dat", state.work_dir, request_id);
-    
-    if let Err(_) = write_data_file(&input_file, data) { return std::ptr::null_mut(); }
-
-    if let Err(_) = state.get_or_spawn_daemon() { return std::ptr::null_mut(); }
-
-    match state.send_execute_command(task_type, request_id, metadata) {
-        Ok(_) => {}
-        Err(_) => {
-            cleanup_files(&input_file, &output_file);
-            return std::ptr::null_mut();
-        }
-    }
-
-    let output_data = match read_data_file(&output_file) {
-        Ok(data) => data,
-        Err(_) => {
-            cleanup_files(&input_file, &output_file);
-            return std::ptr::null_mut();
-        }
-    };
+    let state = unsafe { get_state(&mut env, &obj) };
+    let task_type_str: String = env.get_string(&task_type).unwrap().into();
+    let request_id_str: String = env.get_string(&request_id).unwrap().into();
+    let metadata_str: String = env.get_string(&metadata).unwrap().into();
+    let gathered = state.gather(&task_type_str, &request_id_str, &metadata_str);
+    to_java_byte_array(&mut env, &gathered)
+}
 
-    cleanup_files(&input_file, &output_file);
+#[no_mangle]
+pub extern "system" fn Java_com_jpyrust_JPyRustBridge_reloadNative<'local>(
+    mut env: JNIEnv<'local>,
+    obj: JObject<'local>,
+    model_path: JString<'local>,
+    confidence: jni::sys::jfloat,
+) -> jint {
+    let state = unsafe { get_state(&mut env, &obj) };
+    let model_path_str: String = env.get_string(&model_path).unwrap().into();
+    state.reload(model_path_str, confidence) as jint
+}
 
-    match env.new_byte_array(output_data.len() as i32) {
+#[no_mangle]
+pub extern "system" fn Java_com_jpyrust_JPyRustBridge_transportCounts<'local>(
+    mut env: JNIEnv<'local>,
+    obj: JObject<'local>,
+) -> jlongArray {
+    let state = unsafe { get_state(&mut env, &obj) };
+    let counts: Vec<jlong> = state.transport_counts.iter().map(|c| c.load(Ordering::Relaxed) as jlong).collect();
+    match env.new_long_array(counts.len() as i32) {
         Ok(arr) => {
-            let signed: Vec<i8> = output_data.iter().map(|&b| b as i8).collect();
-            env.set_byte_array_region(&arr, 0, &signed).unwrap();
+            env.set_long_array_region(&arr, 0, &counts).unwrap();
             arr.into_raw()
         }
         Err(_) => std::ptr::null_mut()
@@ -364,9 +995,9 @@ pub extern "system" fn Java_com_jpyrust_JPyRustBridge_closeNative<'local>(
     
     if state_ptr_value == 0 { return; }
 
-    let state_ptr = state_ptr_value as *mut BridgeState;
+    let state_ptr = state_ptr_value as *const BridgeState;
     unsafe {
-        let _ = Box::from_raw(state_ptr); // This triggers Drop for BridgeState -> PythonDaemon -> child.kill()
+        let _ = Arc::from_raw(state_ptr); // Drops BridgeState -> PythonDaemon -> child.kill() once no recycle is in flight
     }
     
     // Set nativePtr to 0 to prevent double-free
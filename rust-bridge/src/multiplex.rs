@@ -0,0 +1,146 @@
+use std::collections::HashMap;
+use std::io::{BufRead, Read, Write};
+use std::sync::atomic::{AtomicBool, Ordering};
+use std::sync::{mpsc, Arc, Mutex};
+use std::time::{Duration, Instant};
+
+use crate::{inline_result_len, link_error, process_rss_kb, TaskError, WorkerProcess};
+
+type Reply = Result<(String, Vec<u8>), TaskError>;
+
+struct Waiter {
+    tx: mpsc::Sender<Reply>,
+    inline: bool,
+}
+
+#[derive(Default)]
+struct Pending {
+    waiting: Mutex<HashMap<String, Waiter>>,
+    closed: AtomicBool,
+}
+
+// One worker process serving several requests at once: commands are written under a lock
+// and a reader thread routes each `RESULT <request_id> ...` line back to its caller. An
+// inline request's `DONE <len>` is followed by its result bytes, read before the next line.
+pub struct SharedDaemon {
+    child: Mutex<WorkerProcess>,
+    stdin: Mutex<Box<dyn Write + Send>>,
+    pending: Arc<Pending>,
+}
+
+fn closed() -> TaskError {
+    TaskError::Link("Python daemon closed".to_string())
+}
+
+fn route_replies(mut stdout: Box<dyn BufRead + Send>, pending: Arc<Pending>) {
+    let mut line = String::new();
+    loop {
+        line.clear();
+        match stdout.read_line(&mut line) {
+            Ok(0) | Err(_) => break,
+            Ok(_) => {
+                let mut parts = line.trim().splitn(3, ' ');
+                if parts.next() != Some("RESULT") {
+                    continue;
+                }
+                if let (Some(request_id), Some(body)) = (parts.next(), parts.next()) {
+                    let waiter = pending.waiting.lock().unwrap().remove(request_id);
+                    let reply = if !body.starts_with("DONE") {
+                        Err(TaskError::Worker(body.to_string()))
+                    } else if waiter.as_ref().map_or(false, |w| w.inline) {
+                        let mut output = vec![0u8; inline_result_len(body)];
+                        if stdout.read_exact(&mut output).is_err() {
+                            if let Some(waiter) = waiter {
+                                pending.waiting.lock().unwrap().insert(request_id.to_string(), waiter);
+                            }
+                            break;
+                        }
+                        Ok((body.to_string(), output))
+                    } else {
+                        Ok((body.to_string(), Vec::new()))
+                    };
+                    if let Some(waiter) = waiter {
+                        let _ = waiter.tx.send(reply);
+                    }
+                }
+            }
+        }
+    }
+    let mut waiting = pending.waiting.lock().unwrap();
+    pending.closed.store(true, Ordering::Release);
+    for (_, waiter) in waiting.drain() {
+        let _ = waiter.tx.send(Err(closed()));
+    }
+}
+
+impl SharedDaemon {
+    pub fn new(child: WorkerProcess, stdin: Box<dyn Write + Send>, stdout: Box<dyn BufRead + Send>) -> Self {
+        let pending = Arc::new(Pending::default());
+        let reader_pending = pending.clone();
+        std::thread::spawn(move || route_replies(stdout, reader_pending));
+        SharedDaemon { child: Mutex::new(child), stdin: Mutex::new(stdin), pending }
+    }
+
+    pub fn is_alive(&self) -> bool {
+        !self.pending.closed.load(Ordering::Acquire) && self.child.lock().unwrap().is_running()
+    }
+
+    pub fn rss_kb(&self) -> Option<u64> {
+        process_rss_kb(self.child.lock().unwrap().id())
+    }
+
+    pub fn call(&self, request_id: &str, command: &str) -> Result<String, TaskError> {
+        self.submit(request_id, command, &[], false).map(|(line, _)| line)
+    }
+
+    pub fn call_inline(&self, request_id: &str, command: &str, payload: &[u8]) -> Result<Vec<u8>, TaskError> {
+        self.submit(request_id, command, payload, true).map(|(_, output)| output)
+    }
+
+    fn submit(&self, request_id: &str, command: &str, payload: &[u8], inline: bool) -> Reply {
+        let (tx, rx) = mpsc::channel();
+        {
+            let mut waiting = self.pending.waiting.lock().unwrap();
+            if self.pending.closed.load(Ordering::Acquire) {
+                return Err(closed());
+            }
+            waiting.insert(request_id.to_string(), Waiter { tx, inline });
+        }
+        let written = {
+            let mut stdin = self.stdin.lock().unwrap();
+            stdin.write_all(command.as_bytes())
+                .and_then(|_| stdin.write_all(payload))
+                .and_then(|_| stdin.flush())
+        };
+        if let Err(e) = written {
+            self.pending.waiting.lock().unwrap().remove(request_id);
+            return Err(link_error(e));
+        }
+        rx.recv().unwrap_or_else(|_| Err(closed()))
+    }
+
+    // Callers clone the Arc under the slot lock, so once the link is swapped out the count
+    // only falls; waiting for it to reach one means no request is left to be written.
+    pub fn shutdown(self: &Arc<Self>, timeout: Duration) {
+        let deadline = Instant::now() + timeout;
+        while Arc::strong_count(self) > 1 && Instant::now() < deadline {
+            std::thread::sleep(Duration::from_millis(10));
+        }
+        {
+            let mut stdin = self.stdin.lock().unwrap();
+            let _ = stdin.write_all(b"EXIT\n").and_then(|_| stdin.flush());
+        }
+        while Instant::now() < deadline {
+            if !self.child.lock().unwrap().is_running() {
+                return;
+            }
+            std::thread::sleep(Duration::from_millis(50));
+        }
+    }
+}
+
+impl Drop for SharedDaemon {
+    fn drop(&mut self) {
+        self.child.get_mut().unwrap().kill();
+    }
+}
@@ -0,0 +1,100 @@
+use std::io::{BufRead, BufReader, BufWriter, Write};
+use std::net::{TcpStream, ToSocketAddrs};
+use std::time::Duration;
+
+#[derive(Clone, Debug)]
+pub enum Endpoint {
+    Tcp(String),
+    #[cfg(unix)]
+    Unix(String),
+}
+
+pub struct RemoteWorker {
+    pub reader: Box<dyn BufRead + Send>,
+    pub writer: Box<dyn Write + Send>,
+}
+
+#[cfg(unix)]
+fn parse_unix(addr: &str) -> Option<Endpoint> {
+    addr.strip_prefix("unix:").map(|path| Endpoint::Unix(path.to_string()))
+}
+
+#[cfg(not(unix))]
+fn parse_unix(_addr: &str) -> Option<Endpoint> {
+    None
+}
+
+fn parse_endpoint(spec: &str) -> Result<(Endpoint, usize), String> {
+    let (addr, weight) = match spec.rsplit_once('*') {
+        Some((addr, weight)) => {
+            let weight = weight.trim().parse::<usize>()
+                .map_err(|_| format!("Invalid endpoint weight: {}", spec))?;
+            (addr.trim(), weight)
+        }
+        None => (spec.trim(), 1),
+    };
+    if let Some(host_port) = addr.strip_prefix("tcp://") {
+        return Ok((Endpoint::Tcp(host_port.to_string()), weight));
+    }
+    match parse_unix(addr) {
+        Some(endpoint) => Ok((endpoint, weight)),
+        None => Err(format!("Unsupported worker endpoint: {}", spec)),
+    }
+}
+
+// "tcp://a:9000*2,unix:/run/w.sock" -> [a, w.sock, a]: each endpoint gets one pooled
+// connection per unit of weight, interleaved so round-robin dispatch follows the weights.
+pub fn expand_endpoints(spec: &str) -> Result<Vec<Endpoint>, String> {
+    let mut parsed = Vec::new();
+    for part in spec.split(',').map(str::trim).filter(|p| !p.is_empty()) {
+        parsed.push(parse_endpoint(part)?);
+    }
+    let rounds = parsed.iter().map(|(_, w)| *w).max().unwrap_or(0);
+    let mut slots = Vec::new();
+    for round in 0..rounds {
+        for (endpoint, weight) in &parsed {
+            if *weight > round {
+                slots.push(endpoint.clone());
+            }
+        }
+    }
+    Ok(slots)
+}
+
+pub fn connect(endpoint: &Endpoint, timeout: Duration) -> Result<RemoteWorker, String> {
+    let (reader, writer) = match endpoint {
+        Endpoint::Tcp(addr) => {
+            let sock_addr = addr.to_socket_addrs()
+                .map_err(|e| format!("Cannot resolve {}: {}", addr, e))?
+                .next()
+                .ok_or_else(|| format!("No address for {}", addr))?;
+            let stream = TcpStream::connect_timeout(&sock_addr, timeout)
+                .map_err(|e| format!("Connect to tcp://{} failed: {}", addr, e))?;
+            let _ = stream.set_nodelay(true);
+            let read_half = stream.try_clone().map_err(|e| e.to_string())?;
+            (Box::new(BufReader::new(read_half)) as Box<dyn BufRead + Send>, Box::new(BufWriter::new(stream)) as Box<dyn Write + Send>)
+        }
+        #[cfg(unix)]
+        Endpoint::Unix(path) => {
+            let stream = std::os::unix::net::UnixStream::connect(path)
+                .map_err(|e| format!("Connect to unix:{} failed: {}", path, e))?;
+            let read_half = stream.try_clone().map_err(|e| e.to_string())?;
+            (Box::new(BufReader::new(read_half)) as Box<dyn BufRead + Send>, Box::new(BufWriter::new(stream)) as Box<dyn Write + Send>)
+        }
+    };
+
+    let mut worker = RemoteWorker { reader, writer };
+    let mut line = String::new();
+    loop {
+        line.clear();
+        match worker.reader.read_line(&mut line) {
+            Ok(0) => return Err(format!("Remote worker {:?} closed before READY", endpoint)),
+            Ok(_) => {
+                if line.trim() == "READY" {
+                    return Ok(worker);
+                }
+            }
+            Err(e) => return Err(format!("Error reading from remote worker {:?}: {}", endpoint, e)),
+        }
+    }
+}
@@ -0,0 +1,152 @@
+use std::io::{BufRead, BufReader, BufWriter, Write};
+use std::os::unix::io::AsRawFd;
+use std::os::unix::net::UnixStream;
+use std::process::{Child, ChildStdin, ChildStdout};
+use std::time::Duration;
+
+#[repr(C)]
+struct PollFd {
+    fd: i32,
+    events: i16,
+    revents: i16,
+}
+
+#[cfg(target_os = "linux")]
+type NfdsT = std::os::raw::c_ulong;
+#[cfg(not(target_os = "linux"))]
+type NfdsT = std::os::raw::c_uint;
+
+extern "C" {
+    fn kill(pid: i32, sig: i32) -> i32;
+    fn poll(fds: *mut PollFd, nfds: NfdsT, timeout: i32) -> i32;
+}
+
+const SIGKILL: i32 = 9;
+const POLLERR: i16 = 0x8;
+const POLLHUP: i16 = 0x10;
+const POLLNVAL: i16 = 0x20;
+
+// A forked worker is not our child: the zygote reaps it, so its pid can be reused as soon
+// as it exits and neither kill(pid, 0) nor a late SIGKILL is safe. The worker holds the
+// only other end of its connection, so a hang-up on that socket means it is gone; once
+// seen, the pid is never signalled again.
+pub struct ForkedProcess {
+    pid: u32,
+    socket: UnixStream,
+    exited: bool,
+}
+
+impl ForkedProcess {
+    pub fn id(&self) -> u32 {
+        self.pid
+    }
+
+    pub fn is_running(&mut self) -> bool {
+        if !self.exited {
+            let mut fd = PollFd { fd: self.socket.as_raw_fd(), events: 0, revents: 0 };
+            let ready = unsafe { poll(&mut fd, 1, 0) };
+            self.exited = ready > 0 && fd.revents & (POLLHUP | POLLERR | POLLNVAL) != 0;
+        }
+        !self.exited
+    }
+
+    pub fn terminate(&mut self) {
+        if self.is_running() {
+            unsafe {
+                kill(self.pid as i32, SIGKILL);
+            }
+            self.exited = true;
+        }
+    }
+}
+
+// A template Python process holding imported libraries and loaded weights. Closing its
+// stdin (on drop) makes it exit; already forked workers keep running until their own
+// connection closes. Its stdout stays drained so a stray print cannot hit a closed pipe.
+pub struct Zygote {
+    child: Child,
+    _stdin: BufWriter<ChildStdin>,
+    socket_path: String,
+    pub model: (String, f32),
+}
+
+pub struct ForkedWorker {
+    pub process: ForkedProcess,
+    pub reader: Box<dyn BufRead + Send>,
+    pub writer: Box<dyn Write + Send>,
+}
+
+impl Zygote {
+    pub fn new(
+        child: Child,
+        stdin: BufWriter<ChildStdin>,
+        stdout: BufReader<ChildStdout>,
+        socket_path: String,
+        model: (String, f32),
+    ) -> Self {
+        std::thread::spawn(move || {
+            for line in stdout.lines().map_while(Result::ok) {
+                eprintln!("[Zygote] {}", line);
+            }
+        });
+        Zygote { child, _stdin: stdin, socket_path, model }
+    }
+
+    pub fn is_alive(&mut self) -> bool {
+        matches!(self.child.try_wait(), Ok(None))
+    }
+
+    // Only the request is sent here, so the caller can release the zygote before waiting
+    // out the child's warm-up in `await_worker`.
+    pub fn fork(&self, index: usize, cpus: &str, threads: &str, concurrency: usize) -> Result<UnixStream, String> {
+        let stream = UnixStream::connect(&self.socket_path)
+            .map_err(|e| format!("Connect to zygote {} failed: {}", self.socket_path, e))?;
+        let request = format!("FORK {} {} {} {}\n", index, cpus, threads, concurrency);
+        (&stream).write_all(request.as_bytes()).map_err(|e| format!("Fork request failed: {}", e))?;
+        Ok(stream)
+    }
+}
+
+impl Drop for Zygote {
+    fn drop(&mut self) {
+        let _ = self.child.kill();
+        let _ = self.child.wait();
+        let _ = std::fs::remove_file(&self.socket_path);
+    }
+}
+
+pub fn await_worker(stream: UnixStream, timeout: Duration) -> Result<ForkedWorker, String> {
+    stream.set_read_timeout(Some(timeout)).map_err(|e| e.to_string())?;
+    let write_half = stream.try_clone().map_err(|e| e.to_string())?;
+    let probe = stream.try_clone().map_err(|e| e.to_string())?;
+    let mut reader = BufReader::new(stream);
+    let mut pid = None;
+    let mut line = String::new();
+    loop {
+        line.clear();
+        match reader.read_line(&mut line) {
+            Ok(0) => return Err("Forked worker closed before READY".to_string()),
+            Ok(_) => {
+                let trimmed = line.trim();
+                if let Some(n) = trimmed.strip_prefix("PID ") {
+                    pid = n.parse::<u32>().ok();
+                } else if trimmed == "READY" {
+                    break;
+                }
+            }
+            Err(e) => {
+                if let Some(pid) = pid {
+                    ForkedProcess { pid, socket: probe, exited: false }.terminate();
+                }
+                return Err(format!("Error waiting for forked worker: {}", e));
+            }
+        }
+    }
+    let pid = pid.ok_or("Forked worker did not report its pid")?;
+    reader.get_ref().set_read_timeout(None).map_err(|e| e.to_string())?;
+    Ok(ForkedWorker {
+        process: ForkedProcess { pid, socket: probe, exited: false },
+        reader: Box::new(reader),
+        writer: Box::new(BufWriter::new(write_half)),
+    })
+}